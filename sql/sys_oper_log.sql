@@ -0,0 +1,18 @@
+-- 操作日志表（@SystemLog 审计记录，由后台线程批量写入）
+CREATE TABLE `sys_oper_log` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '日志主键',
+  `business_name` varchar(100) DEFAULT '' COMMENT '业务名称',
+  `class_method` varchar(255) DEFAULT '' COMMENT '调用的类名和方法名',
+  `request_method` varchar(10) DEFAULT '' COMMENT 'HTTP 请求方式',
+  `request_url` varchar(500) DEFAULT '' COMMENT '请求 URL',
+  `ip` varchar(128) DEFAULT '' COMMENT '请求 IP',
+  `request_args` text COMMENT '请求参数（超长截断）',
+  `response` text COMMENT '返回结果（超长截断）',
+  `status` char(1) DEFAULT '0' COMMENT '执行状态（0成功 1异常）',
+  `error_msg` varchar(2000) DEFAULT NULL COMMENT '异常信息',
+  `cost_time` bigint DEFAULT '0' COMMENT '耗时（毫秒）',
+  `oper_time` datetime DEFAULT NULL COMMENT '操作时间',
+  PRIMARY KEY (`id`),
+  KEY `idx_oper_time` (`oper_time`),
+  KEY `idx_business_name` (`business_name`)
+) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='操作日志表';
@@ -0,0 +1,86 @@
+package com.zhu.benchmark;
+
+import com.zhu.domain.entity.User;
+import com.zhu.domain.vo.uservo.UserDetailVO;
+import com.zhu.domain.vo.uservo.UserVO;
+import com.zhu.utils.BeanCopyUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 属性拷贝基准测试
+ * 对比原先的反射拷贝（newInstance + BeanUtils.copyProperties）与预编译的 BeanCopier
+ *
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Djmh.args="BeanCopyBenchmark -prof gc"
+ *
+ * @author xiaozhu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BeanCopyBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        users = BenchmarkData.users(rows);
+    }
+
+    @Benchmark
+    public List<UserVO> reflectiveUserVO() {
+        return legacyCopyList(users, UserVO.class);
+    }
+
+    @Benchmark
+    public List<UserVO> copierUserVO() {
+        return BeanCopyUtils.copyBeanList(users, UserVO.class);
+    }
+
+    @Benchmark
+    public List<UserDetailVO> reflectiveUserDetailVO() {
+        return legacyCopyList(users, UserDetailVO.class);
+    }
+
+    @Benchmark
+    public List<UserDetailVO> copierUserDetailVO() {
+        return BeanCopyUtils.copyBeanList(users, UserDetailVO.class);
+    }
+
+    /**
+     * 改造前 BeanCopyUtils 的实现
+     */
+    private static <V> List<V> legacyCopyList(List<?> list, Class<V> clazz) {
+        return list.stream()
+                .map(source -> {
+                    try {
+                        V target = clazz.getDeclaredConstructor().newInstance();
+                        BeanUtils.copyProperties(source, target);
+                        return target;
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .collect(Collectors.toList());
+    }
+}
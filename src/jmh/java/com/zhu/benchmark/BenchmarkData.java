@@ -0,0 +1,86 @@
+package com.zhu.benchmark;
+
+import com.zhu.common.dict.DictSnapshot;
+import com.zhu.domain.entity.DictData;
+import com.zhu.domain.entity.User;
+import com.zhu.service.impl.DictServiceImpl;
+import com.zhu.utils.DictUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 基准测试数据
+ * 不依赖数据库和 Redis：用户数据在内存中生成，字典快照直接注入 DictServiceImpl
+ *
+ * @author xiaozhu
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * 生成固定内容的用户列表（相同参数每次生成的数据相同，保证结果可复现）
+     */
+    public static List<User> users(int rows) {
+        List<User> users = new ArrayList<>(rows);
+        Date time = new Date(1_700_000_000_000L);
+        for (int i = 0; i < rows; i++) {
+            User user = new User();
+            user.setId(100_000L + i);
+            user.setUserName("user" + i);
+            user.setNickName("nick" + i);
+            user.setPassword("$2a$10$7JB720yubVSZvUI0rEqK/.VqGOZTH.ulu33dHOiBE8ByOhJIrdAu2");
+            user.setType(i % 10 == 0 ? "1" : "0");
+            user.setStatus(i % 20 == 0 ? "1" : "0");
+            user.setEmail("user" + i + "@example.com");
+            user.setPhonenumber(String.valueOf(13_800_000_000L + i));
+            user.setSex(String.valueOf(i % 3));
+            user.setAvatar("https://example.com/avatar/" + i + ".png");
+            user.setCreateBy(1L);
+            user.setCreateTime(time);
+            user.setUpdateBy(1L);
+            user.setUpdateTime(time);
+            user.setDelFlag(0);
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * 与 sql/sys_dict.sql 中初始化数据一致的字典快照
+     */
+    public static DictSnapshot dictSnapshot() {
+        List<DictData> data = new ArrayList<>();
+        data.add(dict(DictUtils.USER_SEX, "0", "男"));
+        data.add(dict(DictUtils.USER_SEX, "1", "女"));
+        data.add(dict(DictUtils.USER_SEX, "2", "未知"));
+        data.add(dict(DictUtils.USER_TYPE, "0", "普通用户"));
+        data.add(dict(DictUtils.USER_TYPE, "1", "管理员"));
+        data.add(dict(DictUtils.NORMAL_DISABLE, "0", "正常"));
+        data.add(dict(DictUtils.NORMAL_DISABLE, "1", "停用"));
+        return DictSnapshot.of(1L, List.of(), data);
+    }
+
+    /**
+     * 把字典快照注入 DictServiceImpl，并让 DictUtils 使用它
+     */
+    @SuppressWarnings("unchecked")
+    public static void installDict() {
+        DictServiceImpl dictService = new DictServiceImpl();
+        ((AtomicReference<DictSnapshot>) ReflectionTestUtils.getField(dictService, "snapshot")).set(dictSnapshot());
+        ReflectionTestUtils.setField(DictUtils.class, "dictService", dictService);
+    }
+
+    private static DictData dict(String type, String value, String label) {
+        DictData data = new DictData();
+        data.setDictType(type);
+        data.setDictValue(value);
+        data.setDictLabel(label);
+        return data;
+    }
+}
@@ -0,0 +1,80 @@
+package com.zhu.benchmark;
+
+import com.zhu.converter.UserConverter;
+import com.zhu.domain.entity.User;
+import com.zhu.domain.vo.uservo.UserDetailVO;
+import com.zhu.domain.vo.uservo.UserVO;
+import com.zhu.utils.DictUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户转换与字典翻译基准测试
+ *
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Djmh.args="ConverterBenchmark"
+ *
+ * @author xiaozhu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private List<User> users;
+
+    private User user;
+
+    @Setup
+    public void setup() {
+        BenchmarkData.installDict();
+        users = BenchmarkData.users(rows);
+        user = users.get(rows / 2);
+    }
+
+    @Benchmark
+    public List<UserVO> toVOList() {
+        return UserConverter.toVOList(users);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public UserVO toVO() {
+        return UserConverter.toVO(user);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public UserDetailVO toDetailVO() {
+        return UserConverter.toDetailVO(user);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String getDictLabel() {
+        return DictUtils.getDictLabel(DictUtils.USER_TYPE, user.getType(), DictUtils.UNKNOWN);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String getSexDesc() {
+        return DictUtils.getSexDesc(user.getSex());
+    }
+}
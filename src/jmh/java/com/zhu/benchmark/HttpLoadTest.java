@@ -0,0 +1,118 @@
+package com.zhu.benchmark;
+
+import com.zhu.monitor.LatencyHistogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 简单的 HTTP 闭环压测工具，用于对比平台线程与虚拟线程两种模式
+ *
+ * 每个并发用户循环发送请求（收到响应后立即发下一个），先预热再统计，
+ * 输出吞吐量、错误数和 p50/p99/p999 延迟。
+ *
+ * 对比方法（同一台机器、同一份数据，分别启动两次应用）：
+ * <pre>
+ * # 平台线程模式（默认，Tomcat 最多 200 个线程）
+ * java -jar app.jar --spring.profiles.active=prod
+ * # 虚拟线程模式（JDK 21+，同时开启数据源并发限制）
+ * java -jar app.jar --spring.profiles.active=prod --spring.threads.virtual.enabled=true
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.zhu.benchmark.HttpLoadTest \
+ *     -Djmh.args="http://localhost:8080/user/1 -c 2000 -d 60 -H 'token: xxx'"
+ * </pre>
+ * 并发数应明显大于 Tomcat 线程数（如 1000、2000），才能体现两种模式的差别；
+ * 同时观察 /actuator/prometheus 中的 hikaricp_connections_pending 与 datasource_limiter_waiting。
+ *
+ * @author xiaozhu
+ */
+public class HttpLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println("用法: HttpLoadTest <url> [-c 并发数=200] [-d 持续秒数=30] [-w 预热秒数=10] [-H '名称: 值']...");
+            return;
+        }
+        String url = args[0];
+        int concurrency = 200;
+        int durationSeconds = 30;
+        int warmupSeconds = 10;
+        List<String[]> headers = new ArrayList<>();
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-c" -> concurrency = Integer.parseInt(args[i + 1]);
+                case "-d" -> durationSeconds = Integer.parseInt(args[i + 1]);
+                case "-w" -> warmupSeconds = Integer.parseInt(args[i + 1]);
+                case "-H" -> {
+                    String[] header = args[i + 1].split(":", 2);
+                    headers.add(new String[]{header[0].trim(), header[1].trim()});
+                }
+                default -> throw new IllegalArgumentException("未知参数: " + args[i]);
+            }
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(60)).GET();
+        headers.forEach(header -> builder.header(header[0], header[1]));
+        HttpRequest request = builder.build();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+        System.out.printf("压测 %s: 并发=%d, 预热=%ds, 持续=%ds%n", url, concurrency, warmupSeconds, durationSeconds);
+        run(client, request, concurrency, warmupSeconds);
+        Result result = run(client, request, concurrency, durationSeconds);
+
+        LatencyHistogram latency = result.latency;
+        System.out.printf("请求数=%d, 错误数=%d, 吞吐量=%.1f req/s%n",
+                latency.getCount(), result.errors.sum(), latency.getCount() / (double) durationSeconds);
+        System.out.printf("延迟(ms): mean=%.2f, p50=%.2f, p99=%.2f, p999=%.2f, max=%.2f%n",
+                latency.getMean() / 1000.0, latency.percentile(50) / 1000.0, latency.percentile(99) / 1000.0,
+                latency.percentile(99.9) / 1000.0, latency.getMax() / 1000.0);
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, int seconds)
+            throws InterruptedException {
+        Result result = new Result();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            executor.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                result.errors.increment();
+                            }
+                        } catch (Exception e) {
+                            result.errors.increment();
+                        }
+                        result.latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        executor.shutdown();
+        return result;
+    }
+
+    private static final class Result {
+
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        final LongAdder errors = new LongAdder();
+    }
+}
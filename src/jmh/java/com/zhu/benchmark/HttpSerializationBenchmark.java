@@ -0,0 +1,95 @@
+package com.zhu.benchmark;
+
+import com.zhu.common.result.ResponseResult;
+import com.zhu.config.WebConfig;
+import com.zhu.converter.UserConverter;
+import com.zhu.domain.vo.uservo.UserVO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP 响应序列化基准测试（ResponseResult&lt;List&lt;UserVO&gt;&gt;，与 WebConfig 中的消息转换器相同）
+ * 1. fastjson / jackson：http.serializer.engine 的两个选项
+ * 2. cbor：Accept: application/cbor 时的二进制响应
+ * 3. gzip：序列化后再按 Tomcat 的方式 gzip 压缩（默认压缩级别），用于评估 server.compression 的开销
+ *
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Djmh.args="HttpSerializationBenchmark"
+ * 各种方式的响应字节数（压缩前/后）在 setup 时输出
+ *
+ * @author xiaozhu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    private int rows;
+
+    @Param({"fastjson", "jackson", "cbor"})
+    private String engine;
+
+    private HttpMessageConverter<Object> converter;
+
+    private MediaType mediaType;
+
+    private ResponseResult<List<UserVO>> response;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws IOException {
+        BenchmarkData.installDict();
+        response = ResponseResult.okResult(UserConverter.toVOList(BenchmarkData.users(rows)));
+        WebConfig webConfig = new WebConfig();
+        converter = (HttpMessageConverter<Object>) switch (engine) {
+            case "jackson" -> webConfig.jacksonHttpMessageConverter();
+            case "cbor" -> webConfig.cborHttpMessageConverter();
+            default -> webConfig.fastJsonHttpMessageConverters();
+        };
+        mediaType = "cbor".equals(engine) ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON;
+
+        byte[] bytes = write();
+        System.out.printf("%n[%s] rows=%d, bytes=%d, gzip=%d%n", engine, rows, bytes.length, gzip(bytes).length);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(response, mediaType, message);
+        return message.getBodyAsBytes();
+    }
+
+    @Benchmark
+    public byte[] writeGzip() throws IOException {
+        return gzip(write());
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,64 @@
+package com.zhu.benchmark;
+
+import com.zhu.security.token.VerifiedToken;
+import com.zhu.security.token.VerifiedTokenCache;
+import com.zhu.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 生成与解析基准测试
+ * verifyCached 对应认证过滤器中命中已验签 token 缓存的路径
+ *
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtBenchmark"
+ *
+ * @author xiaozhu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private String token;
+
+    private final VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+
+    @Setup
+    public void setup() throws Exception {
+        token = JwtUtil.createJWT("100001");
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxSize", 1000L);
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxExpireSeconds", 3600L);
+        verifiedTokenCache.init();
+        verifiedTokenCache.verify(token);
+    }
+
+    @Benchmark
+    public String createJWT() {
+        return JwtUtil.createJWT("100001");
+    }
+
+    @Benchmark
+    public Claims parseJWT() throws Exception {
+        return JwtUtil.parseJWT(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() throws Exception {
+        return verifiedTokenCache.verify(token);
+    }
+}
@@ -0,0 +1,76 @@
+package com.zhu.benchmark;
+
+import com.zhu.config.FastJsonRedisSerializer;
+import com.zhu.config.JsonbRedisSerializer;
+import com.zhu.converter.UserConverter;
+import com.zhu.domain.vo.uservo.UserVO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 值序列化基准测试：json（FastJsonRedisSerializer，带类名）、jsonb（JsonbRedisSerializer，类型编号 + LZ4）
+ * HTTP 响应序列化见 {@link HttpSerializationBenchmark}
+ *
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Djmh.args="SerializationBenchmark"
+ * 各种方式序列化后的字节数在 setup 时输出
+ *
+ * @author xiaozhu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000"})
+    private int rows;
+
+    @Param({"json", "jsonb", "jsonb-lz4"})
+    private String codec;
+
+    private FastJsonRedisSerializer<Object> redisSerializer;
+
+    private List<UserVO> userVOs;
+
+    private byte[] redisBytes;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        BenchmarkData.installDict();
+        userVOs = UserConverter.toVOList(BenchmarkData.users(rows));
+        redisSerializer = switch (codec) {
+            case "jsonb" -> new JsonbRedisSerializer<>(Object.class, 0, null);
+            case "jsonb-lz4" -> new JsonbRedisSerializer<>(Object.class, 1024, null);
+            default -> new FastJsonRedisSerializer<>(Object.class);
+        };
+        redisBytes = redisSerializer.serialize(userVOs);
+        System.out.printf("%n[%s] rows=%d, bytes=%d, bytes/row=%.1f, single user=%d bytes%n", codec, rows,
+                redisBytes.length, redisBytes.length / (double) rows,
+                redisSerializer.serialize(BenchmarkData.users(1).get(0)).length);
+    }
+
+    @Benchmark
+    public byte[] redisSerialize() {
+        return redisSerializer.serialize(userVOs);
+    }
+
+    @Benchmark
+    public Object redisDeserialize() {
+        return redisSerializer.deserialize(redisBytes);
+    }
+}
@@ -12,4 +12,7 @@ public @interface SystemLog {
 
     // 业务名称
     String businessName();
+
+    // 审计日志采样率（0~1），高频接口可以调低，异常请求总是记录
+    double sampleRate() default 1.0;
 }
@@ -1,19 +1,27 @@
 package com.zhu.aspect;
 
-import com.alibaba.fastjson2.JSON;
 import com.zhu.annoation.SystemLog;
+import com.zhu.audit.AuditEvent;
+import com.zhu.audit.AuditLogWriter;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.WebRequest;
 
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.InputStreamSource;
+
+import java.util.Arrays;
 
 @Component
 @Aspect
@@ -27,58 +35,71 @@ public class LogAspect {
     }
 
 
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+
     // 使用环绕通知
+    // 请求线程中只收集审计事件，序列化和入库都交给后台线程
     @Around("pt()")
     public Object printLog(ProceedingJoinPoint joinPoint) throws Throwable {
 
+        SystemLog systemLog = getSystemLog(joinPoint);
+        AuditEvent event = handleBefore(joinPoint, systemLog);
+
         // 目标结果的返回值
         // 这里会出现异常
-        Object res;
+        Object res = null;
         try {
-            handleBefore(joinPoint);
             // 直接抛出去然后让我们的全局异常捕获来操作
             res = joinPoint.proceed();
-            handleAfter(res);
+            return res;
+        } catch (Throwable e) {
+            event.setError(e);
+            throw e;
         } finally {
-            // 结束后换行
-            // 注意System.lineSeparator() 是换行符，不同的操作系统的换行符不同， 所以我们不用写死
-            log.info("=======End=======" + System.lineSeparator());
+            event.setResult(res);
+            event.setCostTime(System.currentTimeMillis() - event.getStartTime());
+            log.info("{} {} [{}] {}ms{}", event.getRequestMethod(), event.getRequestUrl(),
+                    event.getBusinessName(), event.getCostTime(), event.getError() == null ? "" : " ERROR");
+            auditLogWriter.publish(event, systemLog.sampleRate());
         }
-
-        return res;
     }
 
 
-    private void handleBefore(ProceedingJoinPoint joinPoint) {
+    private AuditEvent handleBefore(ProceedingJoinPoint joinPoint, SystemLog systemLog) {
 
+        AuditEvent event = new AuditEvent();
+        event.setStartTime(System.currentTimeMillis());
+        // 业务的名字
+        event.setBusinessName(systemLog.businessName());
+        // 调用 controller 的全路径以及执行方法
+        event.setClassMethod(joinPoint.getSignature().getDeclaringTypeName() + "." + ((MethodSignature) joinPoint.getSignature()).getName());
+        // 请求入参（只保存引用，由后台线程序列化）
+        event.setArgs(loggableArgs(joinPoint.getArgs()));
 
-        // ctrl + alt + click 查看一个接口的实现类
         // 强转之后我们就可以得到request的了
         // 由这个request就可以得到url地址 http报文
-        RequestAttributes requestAttributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-
-        HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
-
-
-        // 获取被增强方法上的注解对象
-
-        SystemLog systemLog = getSystemLog(joinPoint);
-
-
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes instanceof ServletRequestAttributes servletRequestAttributes) {
+            HttpServletRequest request = servletRequestAttributes.getRequest();
+            event.setRequestUrl(request.getRequestURL().toString());
+            event.setRequestMethod(request.getMethod());
+            event.setIp(request.getRemoteHost());
+        }
+        return event;
+    }
 
-        log.info("=======Start=======");
-        // 打印请求 URL
-        log.info("URL            : {}", request.getRequestURL());
-        // 打印描述信息 业务的名字
-        log.info("BusinessName   : {}", systemLog.businessName());
-        // 打印 Http method
-        log.info("HTTP Method    : {}", request.getMethod());
-        // 打印调用 controller 的全路径以及执行方法
-        log.info("Class Method   : {}.{}", joinPoint.getSignature().getDeclaringTypeName(), ((MethodSignature)joinPoint.getSignature()).getName());
-        // 打印请求的 IP
-        log.info("IP             : {}", request.getRemoteHost());
-        // 打印请求入参
-        log.info("Request Args   : {}", JSON.toJSONString(joinPoint.getArgs()));
+    /**
+     * 过滤掉请求/响应对象和上传文件等无法（也不应该）序列化的参数
+     */
+    private Object[] loggableArgs(Object[] args) {
+        return Arrays.stream(args)
+                .filter(arg -> !(arg instanceof ServletRequest
+                        || arg instanceof ServletResponse
+                        || arg instanceof WebRequest
+                        || arg instanceof InputStreamSource))
+                .toArray();
     }
 
     private SystemLog getSystemLog(ProceedingJoinPoint joinPoint) {
@@ -91,9 +112,4 @@ public class LogAspect {
         return systemLog;
     }
 
-    private void handleAfter(Object res) {
-        // 打印出参
-        log.info("Response       : {}", JSON.toJSONString(res));
-    }
-
 }
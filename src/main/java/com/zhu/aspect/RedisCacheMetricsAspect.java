@@ -0,0 +1,62 @@
+package com.zhu.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RedisCache 操作耗时统计
+ * 每个公共方法一个 Timer（redis.cache{operation=方法名, result=success|error}），
+ * 直方图是否发布由 management.metrics.distribution 配置决定
+ *
+ * @author xiaozhu
+ */
+@Component
+@Aspect
+public class RedisCacheMetricsAspect {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 方法名 + 结果 -> Timer，避免每次调用都构造 Timer.Builder
+     */
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Pointcut("execution(public * com.zhu.utils.RedisCache.*(..))")
+    public void pt() {
+
+    }
+
+    @Around("pt()")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getName();
+        long start = System.nanoTime();
+        String result = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            result = "error";
+            throw e;
+        } finally {
+            timer(operation, result).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String operation, String result) {
+        return timers.computeIfAbsent(operation + ':' + result, k -> Timer.builder("redis.cache")
+                .description("RedisCache 操作耗时")
+                .tag("operation", operation)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,63 @@
+package com.zhu.audit;
+
+import lombok.Data;
+
+/**
+ * 审计事件
+ * 在请求线程中只收集基本信息和参数/结果的引用（大列表在入队前裁剪），不做序列化，序列化由后台写入线程完成
+ *
+ * @author xiaozhu
+ */
+@Data
+public class AuditEvent {
+
+    /**
+     * 业务名称
+     */
+    private String businessName;
+
+    /**
+     * 调用的类名和方法名
+     */
+    private String classMethod;
+
+    /**
+     * HTTP 请求方式
+     */
+    private String requestMethod;
+
+    /**
+     * 请求 URL
+     */
+    private String requestUrl;
+
+    /**
+     * 请求 IP
+     */
+    private String ip;
+
+    /**
+     * 请求参数（已过滤掉请求/响应对象等不可序列化的参数）
+     */
+    private Object[] args;
+
+    /**
+     * 返回结果
+     */
+    private Object result;
+
+    /**
+     * 异常（执行成功时为 null）
+     */
+    private Throwable error;
+
+    /**
+     * 开始时间（毫秒时间戳）
+     */
+    private long startTime;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long costTime;
+}
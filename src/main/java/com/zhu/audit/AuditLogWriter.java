@@ -0,0 +1,290 @@
+package com.zhu.audit;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.filter.ValueFilter;
+import com.zhu.common.result.ResponseResult;
+import com.zhu.domain.entity.OperLog;
+import com.zhu.domain.vo.AuditStatsVO;
+import com.zhu.mapper.OperLogMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步审计日志写入器
+ *
+ * 1. 请求线程只做采样判断并把事件放入有界无锁环形队列，队列满时直接丢弃并计数，不阻塞请求；
+ *    入队前把参数和返回结果中的大列表裁剪为前 max-list-items 个元素，队列中的事件不会持有整个响应
+ * 2. 单个后台线程批量取出事件，序列化请求参数/返回结果并截断超长内容，批量插入 sys_oper_log
+ * 3. 异常请求不参与采样，总是记录
+ * 4. 字段名包含 audit.mask-fields 中任一关键字（忽略大小写，如 password、token）的值序列化为掩码，不写入明文
+ *
+ * @author xiaozhu
+ */
+@Slf4j
+@Component
+public class AuditLogWriter {
+
+    private static final String TRUNCATED_SUFFIX = "...(truncated)";
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private static final String MASK = "******";
+
+    @Autowired
+    private OperLogMapper operLogMapper;
+
+    @Value("${audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audit.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${audit.max-payload-length:2000}")
+    private int maxPayloadLength;
+
+    @Value("${audit.max-list-items:20}")
+    private int maxListItems;
+
+    @Value("${audit.mask-fields:password,token,secret}")
+    private List<String> maskFields = List.of("password", "token", "secret");
+
+    /**
+     * 序列化时把敏感字段（包括 Map 中的同名键）替换为掩码
+     */
+    private final ValueFilter maskFilter = (object, name, value) ->
+            value != null && name != null && isSensitive(name) ? MASK : value;
+
+    private RingBuffer<AuditEvent> buffer;
+
+    private Thread writerThread;
+
+    private volatile boolean running;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder truncated = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        buffer = new RingBuffer<>(bufferSize);
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::run, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        // 等待后台线程写完队列中剩余的事件
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * 提交审计事件（在请求线程中调用，不会阻塞）
+     *
+     * @param event 审计事件
+     * @param sampleRate 采样率（0~1），异常请求总是记录
+     */
+    public void publish(AuditEvent event, double sampleRate) {
+        if (!enabled) {
+            return;
+        }
+        published.increment();
+        if (event.getError() == null && sampleRate < 1D
+                && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOut.increment();
+            return;
+        }
+        event.setArgs(boundArgs(event.getArgs()));
+        event.setResult(bound(event.getResult()));
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * 获取审计管道统计信息
+     *
+     * @return 审计统计
+     */
+    public AuditStatsVO stats() {
+        AuditStatsVO vo = new AuditStatsVO();
+        vo.setPublished(published.sum());
+        vo.setSampledOut(sampledOut.sum());
+        vo.setDropped(dropped.sum());
+        vo.setWritten(written.sum());
+        vo.setFailed(failed.sum());
+        vo.setTruncated(truncated.sum());
+        vo.setPending(buffer.size());
+        vo.setCapacity(buffer.capacity());
+        return vo;
+    }
+
+    // ==================== 后台写入 ====================
+
+    private void run() {
+        List<AuditEvent> events = new ArrayList<>(batchSize);
+        long parkNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (true) {
+            buffer.drainTo(events, batchSize);
+            if (events.isEmpty()) {
+                if (!running) {
+                    break;
+                }
+                // 队列为空时休眠一个刷新间隔，期间到达的事件在下一轮一起写入
+                LockSupport.parkNanos(this, parkNanos);
+                continue;
+            }
+            write(events);
+            events.clear();
+        }
+    }
+
+    private void write(List<AuditEvent> events) {
+        List<OperLog> logs = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            logs.add(toOperLog(event));
+        }
+        try {
+            operLogMapper.insertBatch(logs);
+            written.add(logs.size());
+        } catch (Exception e) {
+            failed.add(logs.size());
+            log.warn("审计日志写入失败，丢弃 {} 条", logs.size(), e);
+        }
+    }
+
+    private OperLog toOperLog(AuditEvent event) {
+        OperLog operLog = new OperLog();
+        operLog.setBusinessName(event.getBusinessName());
+        operLog.setClassMethod(event.getClassMethod());
+        operLog.setRequestMethod(event.getRequestMethod());
+        operLog.setRequestUrl(event.getRequestUrl());
+        operLog.setIp(event.getIp());
+        operLog.setRequestArgs(serialize(event.getArgs()));
+        operLog.setCostTime(event.getCostTime());
+        operLog.setOperTime(new Date(event.getStartTime()));
+        if (event.getError() == null) {
+            operLog.setStatus("0");
+            operLog.setResponse(serialize(event.getResult()));
+        } else {
+            operLog.setStatus("1");
+            Throwable error = event.getError();
+            String message = error.getClass().getName() + ": " + error.getMessage();
+            operLog.setErrorMsg(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        }
+        return operLog;
+    }
+
+    /**
+     * 序列化并截断超长内容
+     */
+    private String serialize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String json;
+        try {
+            json = JSON.toJSONString(value, maskFilter);
+        } catch (Exception e) {
+            return "[序列化失败] " + e.getMessage();
+        }
+        if (json.length() <= maxPayloadLength) {
+            return json;
+        }
+        truncated.increment();
+        return json.substring(0, maxPayloadLength) + TRUNCATED_SUFFIX;
+    }
+
+    private boolean isSensitive(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        for (String field : maskFields) {
+            if (!field.isBlank() && lower.contains(field.trim().toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ==================== 入队前裁剪（请求线程） ====================
+
+    private Object[] boundArgs(Object[] args) {
+        if (args == null) {
+            return null;
+        }
+        Object[] bounded = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            bounded[i] = bound(args[i]);
+        }
+        return bounded;
+    }
+
+    /**
+     * 流式响应只保留类型（方法返回后才开始写出）；大列表只保留前几个元素，
+     * 既不让队列中的事件持有整个列表（如 /user/all），也避免为了截断而把整个列表再序列化一遍
+     */
+    private Object bound(Object value) {
+        if (value instanceof ResponseEntity<?> entity && entity.getBody() instanceof StreamingResponseBody) {
+            return "[stream] " + entity.getHeaders().getContentType();
+        }
+        return limitItems(value);
+    }
+
+    private Object limitItems(Object value) {
+        if (value instanceof Collection<?> items && items.size() > maxListItems) {
+            return limitCollection(items);
+        }
+        if (value instanceof ResponseResult<?> result
+                && result.getData() instanceof Collection<?> items && items.size() > maxListItems) {
+            Map<String, Object> limited = new LinkedHashMap<>();
+            limited.put("code", result.getCode());
+            limited.put("msg", result.getMsg());
+            limited.put("data", limitCollection(items));
+            return limited;
+        }
+        return value;
+    }
+
+    private Map<String, Object> limitCollection(Collection<?> items) {
+        truncated.increment();
+        Map<String, Object> limited = new LinkedHashMap<>();
+        limited.put("size", items.size());
+        limited.put("items", items.stream().limit(maxListItems).toList());
+        return limited;
+    }
+}
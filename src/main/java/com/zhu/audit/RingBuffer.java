@@ -0,0 +1,130 @@
+package com.zhu.audit;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界无锁环形队列（多生产者多消费者）
+ *
+ * 每个槽位带一个序号：序号等于写入位置时可写，等于写入位置 + 1 时可读。
+ * 生产者/消费者只通过 CAS 抢占位置，不加锁也不阻塞，队列满时 offer 直接返回 false，
+ * 由调用方决定丢弃还是降级，保证请求线程不会被审计写入拖慢。
+ *
+ * @author xiaozhu
+ */
+public final class RingBuffer<E> {
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> buffer;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong enqueuePosition = new AtomicLong();
+
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    /**
+     * @param capacity 容量，会向上取整为 2 的幂
+     */
+    public RingBuffer(int capacity) {
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("容量必须在 2 到 2^30 之间: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 入队
+     *
+     * @param element 元素（不能为 null）
+     * @return 队列已满返回 false
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        while (true) {
+            long position = enqueuePosition.get();
+            int index = (int) position & mask;
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    buffer.lazySet(index, element);
+                    // 发布：序号 +1 后消费者才能读取该槽位
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                // 槽位还没被消费，队列已满
+                return false;
+            }
+            // diff > 0：其他生产者已抢占该位置，重试
+        }
+    }
+
+    /**
+     * 出队
+     *
+     * @return 队首元素，队列为空返回 null
+     */
+    public E poll() {
+        while (true) {
+            long position = dequeuePosition.get();
+            int index = (int) position & mask;
+            long diff = sequences.get(index) - (position + 1);
+            if (diff == 0) {
+                if (dequeuePosition.compareAndSet(position, position + 1)) {
+                    E element = buffer.get(index);
+                    buffer.lazySet(index, null);
+                    // 释放：序号推进一圈后生产者才能再次写入该槽位
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+            } else if (diff < 0) {
+                // 槽位还没被写入，队列为空
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 批量出队
+     *
+     * @param target 接收元素的集合
+     * @param maxElements 最多取出的元素个数
+     * @return 实际取出的元素个数
+     */
+    public int drainTo(Collection<? super E> target, int maxElements) {
+        int count = 0;
+        E element;
+        while (count < maxElements && (element = poll()) != null) {
+            target.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 当前元素个数（并发修改时为近似值）
+     */
+    public int size() {
+        long size = enqueuePosition.get() - dequeuePosition.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    /**
+     * 容量
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,122 @@
+package com.zhu.batch;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求合并的公共部分
+ *
+ * 请求线程把请求放入有界队列，单个后台线程取出第一条后在一个很短的窗口内继续收集，
+ * 窗口结束或凑满一批后统一处理。子类负责处理一批请求并通知各个请求线程。
+ *
+ * @param <T> 请求类型
+ * @author xiaozhu
+ */
+@Slf4j
+public abstract class AbstractBatcher<T> {
+
+    private BlockingQueue<T> queue;
+
+    private Thread worker;
+
+    private volatile boolean running;
+
+    private int maxBatchWeight;
+
+    private long maxWaitNanos;
+
+    /**
+     * 启动后台线程
+     *
+     * @param threadName 线程名
+     * @param queueSize 队列容量
+     * @param maxBatchWeight 每批请求的最大权重之和（见 {@link #weigh}）
+     * @param maxWaitNanos 收到第一条请求后等待后续请求的最长时间（纳秒）
+     */
+    protected void start(String threadName, int queueSize, int maxBatchWeight, long maxWaitNanos) {
+        this.queue = new LinkedBlockingQueue<>(queueSize);
+        this.maxBatchWeight = maxBatchWeight;
+        this.maxWaitNanos = maxWaitNanos;
+        running = true;
+        worker = new Thread(this::run, threadName);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        // 等待后台线程处理完队列中剩余的请求
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * 提交请求
+     *
+     * @return 未启动或队列已满时返回 false，调用方应在当前线程直接处理
+     */
+    protected boolean offer(T request) {
+        return running && queue.offer(request);
+    }
+
+    /**
+     * 请求的权重，用于限制每批的大小，默认每条请求为 1
+     */
+    protected int weigh(T request) {
+        return 1;
+    }
+
+    /**
+     * 处理一批请求（在后台线程中调用），需要保证每条请求都得到结果
+     */
+    protected abstract void flush(List<T> batch);
+
+    private void run() {
+        List<T> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                T first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch, weigh(first));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            try {
+                flush(batch);
+            } catch (RuntimeException e) {
+                log.error("{} 批处理失败: size={}", worker.getName(), batch.size(), e);
+            }
+            batch.clear();
+        }
+        // 被中断退出时，剩余请求交给调用方自己超时
+    }
+
+    /**
+     * 合并窗口：从第一条请求开始最多等待 maxWaitNanos，或凑满 maxBatchWeight
+     */
+    private void collect(List<T> batch, int weight) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (weight < maxBatchWeight) {
+            long remaining = deadline - System.nanoTime();
+            T next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            weight += weigh(next);
+        }
+    }
+}
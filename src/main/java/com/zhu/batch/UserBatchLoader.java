@@ -0,0 +1,187 @@
+package com.zhu.batch;
+
+import com.zhu.cache.UserCache;
+import com.zhu.domain.entity.User;
+import com.zhu.mapper.UserMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 按ID查询用户的合并加载器（DataLoader）
+ *
+ * 1. 本地缓存命中的ID在请求线程中直接返回
+ * 2. 未命中的ID放入队列，后台线程把几百微秒内到达的请求合并（见 {@link AbstractBatcher}），
+ *    去重后先 Redis MGET，剩余的用一条 IN 查询加载
+ * 3. 结果按请求中ID的顺序返回
+ *
+ * @author xiaozhu
+ */
+@Slf4j
+@Component
+public class UserBatchLoader extends AbstractBatcher<UserBatchLoader.PendingLoad> implements MeterBinder {
+
+    /**
+     * 单条 IN 查询的最大ID数
+     */
+    private static final int MAX_IN_SIZE = 1000;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Value("${cache.user.batch-enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.user.batch-window-us:200}")
+    private long windowMicros;
+
+    @Value("${cache.user.batch-max-ids:500}")
+    private int maxIds;
+
+    @Value("${cache.user.batch-queue-size:10000}")
+    private int queueSize;
+
+    @Value("${cache.user.batch-timeout-ms:3000}")
+    private long timeoutMs;
+
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            start("user-loader", queueSize, maxIds, TimeUnit.MICROSECONDS.toNanos(windowMicros));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        batchSizes = DistributionSummary.builder("user.loader.batch.size")
+                .description("每次合并加载的用户ID数（去重后）")
+                .register(registry);
+    }
+
+    /**
+     * 根据ID加载用户
+     *
+     * @param id 用户ID
+     * @return 用户（不含密码），不存在或已删除返回 null
+     */
+    public User load(Long id) {
+        return loadMany(List.of(id)).get(0);
+    }
+
+    /**
+     * 根据ID批量加载用户
+     *
+     * @param ids 用户ID列表
+     * @return 与 ids 一一对应的用户（不含密码），不存在或已删除的位置为 null
+     */
+    public List<User> loadMany(List<Long> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        Set<Long> misses = new LinkedHashSet<>();
+        for (Long id : ids) {
+            User user = userCache.getLocalById(id);
+            users.add(user);
+            if (user == null) {
+                misses.add(id);
+            }
+        }
+        if (misses.isEmpty()) {
+            return users;
+        }
+
+        Map<Long, User> loaded = fetch(misses);
+        for (int i = 0; i < ids.size(); i++) {
+            if (users.get(i) == null) {
+                users.set(i, loaded.get(ids.get(i)));
+            }
+        }
+        return users;
+    }
+
+    private Map<Long, User> fetch(Set<Long> ids) {
+        PendingLoad pending = new PendingLoad(ids);
+        // 未开启或队列已满时在当前线程直接加载
+        if (!offer(pending)) {
+            return userCache.getByIds(ids, this::selectFromDb);
+        }
+        try {
+            return pending.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("等待用户加载超时: " + timeoutMs + "ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待用户加载被中断", e);
+        }
+    }
+
+    // ==================== 后台加载 ====================
+
+    @Override
+    protected int weigh(PendingLoad pending) {
+        return pending.ids.size();
+    }
+
+    @Override
+    protected void flush(List<PendingLoad> batch) {
+        Set<Long> ids = new LinkedHashSet<>();
+        batch.forEach(pending -> ids.addAll(pending.ids));
+        if (batchSizes != null) {
+            batchSizes.record(ids.size());
+        }
+        try {
+            Map<Long, User> users = userCache.getByIds(ids, this::selectFromDb);
+            batch.forEach(pending -> pending.result.complete(users));
+        } catch (RuntimeException e) {
+            log.warn("用户批量加载失败: ids={}", ids.size(), e);
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+        }
+    }
+
+    private List<User> selectFromDb(List<Long> ids) {
+        if (ids.size() <= MAX_IN_SIZE) {
+            return userMapper.selectUsersByIds(ids);
+        }
+        List<User> users = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += MAX_IN_SIZE) {
+            users.addAll(userMapper.selectUsersByIds(ids.subList(from, Math.min(from + MAX_IN_SIZE, ids.size()))));
+        }
+        return users;
+    }
+
+    static final class PendingLoad {
+
+        final Collection<Long> ids;
+
+        final CompletableFuture<Map<Long, User>> result = new CompletableFuture<>();
+
+        PendingLoad(Collection<Long> ids) {
+            this.ids = ids;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.zhu.batch;
+
+import com.zhu.domain.entity.User;
+import com.zhu.mapper.UserMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 用户插入组提交
+ *
+ * 1. 请求线程把待插入的用户放入队列后等待结果
+ * 2. 后台线程在一个很短的窗口内收集后续请求（见 {@link AbstractBatcher}），合并为一条多行 INSERT
+ * 3. 用户名唯一性由 sys_user 的唯一索引保证：整批因重复键失败时改为逐行插入，
+ *    只有重复的那一行收到 {@link DuplicateKeyException}，其余行正常写入
+ *
+ * 插入在后台线程中执行，不参与调用方的事务；等待超时时尚未开始写入的请求被取消、不再插入，
+ * 已经开始写入的请求继续等待实际结果
+ *
+ * @author xiaozhu
+ */
+@Slf4j
+@Component
+public class UserInsertBatcher extends AbstractBatcher<UserInsertBatcher.PendingInsert> implements MeterBinder {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Value("${user.insert.group-commit-enabled:true}")
+    private boolean enabled;
+
+    @Value("${user.insert.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${user.insert.max-wait-ms:2}")
+    private long maxWaitMs;
+
+    @Value("${user.insert.queue-size:10000}")
+    private int queueSize;
+
+    @Value("${user.insert.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            start("user-insert", queueSize, maxBatchSize, TimeUnit.MILLISECONDS.toNanos(maxWaitMs));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        batchSizes = DistributionSummary.builder("user.insert.batch.size")
+                .description("每次组提交合并的用户数")
+                .register(registry);
+    }
+
+    /**
+     * 插入用户，返回时 user 的 id 已回填
+     *
+     * @param user 待插入的用户
+     * @throws DuplicateKeyException 用户名已存在
+     * @throws QueryTimeoutException 等待组提交结果超时
+     */
+    public void insert(User user) {
+        PendingInsert pending = new PendingInsert(user);
+        // 未开启或队列已满时在当前线程直接插入
+        if (!offer(pending)) {
+            userMapper.insertBatch(List.of(user));
+            return;
+        }
+        try {
+            pending.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (TimeoutException e) {
+            // 只有尚未被后台线程取走的请求可以取消；已经在执行的 INSERT 必须等待实际结果，
+            // 否则行已写入而调用方收到超时，后续的统计、缓存和索引更新都会被跳过
+            if (pending.cancel()) {
+                throw new QueryTimeoutException("等待用户插入超时: " + timeoutMs + "ms");
+            }
+            awaitInFlight(pending);
+        } catch (InterruptedException e) {
+            if (pending.cancel()) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("等待用户插入被中断", e);
+            }
+            awaitInFlight(pending);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 等待已被后台线程取走的请求的实际结果
+     */
+    private static void awaitInFlight(PendingInsert pending) {
+        try {
+            pending.result.join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(Exception e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    // ==================== 后台写入 ====================
+
+    @Override
+    protected void flush(List<PendingInsert> batch) {
+        if (batchSizes != null) {
+            batchSizes.record(batch.size());
+        }
+        // 同一批内重名的请求不进入多行 INSERT，避免一条重复拖累整批
+        List<PendingInsert> rows = new ArrayList<>(batch.size());
+        List<PendingInsert> repeated = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (PendingInsert pending : batch) {
+            String name = pending.user.getUserName();
+            if (name == null || names.add(name.toLowerCase(Locale.ROOT))) {
+                // 先取走再写入：调用方已超时取消的请求不再插入，取走后调用方不能再取消
+                if (pending.claim()) {
+                    rows.add(pending);
+                }
+            } else {
+                repeated.add(pending);
+            }
+        }
+        if (!rows.isEmpty()) {
+            insertRows(rows);
+        }
+        insertEach(repeated.stream().filter(PendingInsert::claim).toList());
+    }
+
+    private void insertRows(List<PendingInsert> rows) {
+        try {
+            userMapper.insertBatch(rows.stream().map(pending -> pending.user).toList());
+            rows.forEach(pending -> pending.result.complete(null));
+        } catch (DuplicateKeyException e) {
+            // 多行 INSERT 是原子的，逐行重试找出重复的行
+            insertEach(rows);
+        } catch (RuntimeException e) {
+            log.warn("用户批量插入失败: rows={}", rows.size(), e);
+            rows.forEach(pending -> pending.result.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * 逐行插入已取走的请求
+     */
+    private void insertEach(List<PendingInsert> rows) {
+        for (PendingInsert pending : rows) {
+            try {
+                userMapper.insertBatch(List.of(pending.user));
+                pending.result.complete(null);
+            } catch (RuntimeException e) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    static final class PendingInsert {
+
+        private static final int NEW = 0;
+
+        private static final int IN_FLIGHT = 1;
+
+        private static final int CANCELLED = 2;
+
+        final User user;
+
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        /**
+         * NEW -> IN_FLIGHT（后台线程取走，随后完成 result）或 NEW -> CANCELLED（调用方超时放弃），二者只有一个成功
+         */
+        private final AtomicInteger state = new AtomicInteger(NEW);
+
+        PendingInsert(User user) {
+            this.user = user;
+        }
+
+        /**
+         * 后台线程取走请求，返回 false 表示调用方已取消
+         */
+        boolean claim() {
+            return state.compareAndSet(NEW, IN_FLIGHT);
+        }
+
+        /**
+         * 调用方取消请求，返回 false 表示 INSERT 已经开始，应等待实际结果
+         */
+        boolean cancel() {
+            if (state.compareAndSet(NEW, CANCELLED)) {
+                result.cancel(false);
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.zhu.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * RedisCache 的近端缓存（Redis 6 客户端缓存，CLIENT TRACKING）
+ *
+ * 1. 指定前缀的键读取后把反序列化好的值保存在进程内 Caffeine 中，容量有界
+ * 2. 单独的 RESP3 连接以广播模式（BCAST + PREFIX）开启跟踪，任何节点修改、删除或过期这些前缀下的键，
+ *    Redis 都会推送 invalidate 消息，收到后删除本地的值
+ * 3. 读取前先放入占位标记，从 Redis 读到值后只在标记仍在时替换，读取期间收到的失效不会被旧值覆盖
+ * 4. 跟踪连接断开期间收不到失效消息，此时不使用本地缓存，重连并重新开启跟踪后清空本地缓存再恢复
+ *
+ * 需要 Redis 6 以上的单机部署；本地保存的对象由所有调用方共享，读取后不能修改。
+ *
+ * @author xiaozhu
+ */
+@Slf4j
+public class RedisNearCache implements MeterBinder {
+
+    /**
+     * 正在从 Redis 读取的占位标记
+     */
+    private static final class Pending {
+    }
+
+    private final String[] prefixes;
+
+    private final Cache<String, Object> cache;
+
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * 跟踪是否有效：只有能收到失效消息时才使用本地缓存
+     */
+    private volatile boolean tracking;
+
+    private RedisClient client;
+
+    private volatile StatefulRedisConnection<String, String> connection;
+
+    /**
+     * @param prefixes 使用近端缓存的键前缀
+     * @param maxSize 本地最大条目数
+     * @param expireAfterWrite 本地最长保留时间，失效消息丢失时兜底
+     */
+    public RedisNearCache(Collection<String> prefixes, long maxSize, Duration expireAfterWrite) {
+        this.prefixes = prefixes.stream().filter(prefix -> !prefix.isEmpty()).toArray(String[]::new);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 建立跟踪连接并开启广播模式的 CLIENT TRACKING；失败时不启用近端缓存，读取直接访问 Redis
+     *
+     * @param redisUri Redis 地址
+     */
+    public void start(RedisURI redisUri) {
+        if (prefixes.length == 0) {
+            log.warn("近端缓存未配置键前缀，不启用");
+            return;
+        }
+        client = RedisClient.create(redisUri);
+        client.setOptions(ClientOptions.builder()
+                .protocolVersion(ProtocolVersion.RESP3)
+                .autoReconnect(true)
+                .build());
+        client.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress address) {
+                // 首次连接由 start 开启跟踪，这里只处理重连
+                if (handler == connection) {
+                    enableTrackingAsync();
+                }
+            }
+
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+                if (handler == connection) {
+                    tracking = false;
+                    cache.invalidateAll();
+                    log.warn("近端缓存跟踪连接断开，暂停使用本地缓存");
+                }
+            }
+        });
+        try {
+            StatefulRedisConnection<String, String> connected = client.connect();
+            connected.addListener(this::onPushMessage);
+            connected.sync().clientTracking(trackingArgs());
+            connection = connected;
+            onTrackingEnabled();
+            log.info("近端缓存已开启: prefixes={}", String.join(",", prefixes));
+        } catch (RuntimeException e) {
+            log.warn("近端缓存开启失败，读取直接访问 Redis", e);
+            stop();
+        }
+    }
+
+    public void stop() {
+        tracking = false;
+        cache.invalidateAll();
+        if (connection != null) {
+            connection.close();
+            connection = null;
+        }
+        if (client != null) {
+            client.shutdown(0, 2, TimeUnit.SECONDS);
+            client = null;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "redis.near");
+        FunctionCounter.builder("redis.near.invalidations", invalidations, LongAdder::sum)
+                .description("收到的失效键数").register(registry);
+        Gauge.builder("redis.near.tracking", this, nearCache -> nearCache.tracking ? 1 : 0)
+                .description("跟踪连接是否有效（1=使用本地缓存）").register(registry);
+    }
+
+    /**
+     * 键是否使用近端缓存
+     */
+    public boolean accepts(String key) {
+        for (String prefix : prefixes) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 读取单个键，本地未命中时调用 loader 从 Redis 读取；null 不缓存
+     *
+     * @param key 缓存键值
+     * @param loader 从 Redis 读取的函数
+     * @return 缓存的值
+     */
+    public Object get(String key, Function<String, Object> loader) {
+        if (!tracking) {
+            return loader.apply(key);
+        }
+        Object cached = cache.getIfPresent(key);
+        if (cached != null && !(cached instanceof Pending)) {
+            return cached;
+        }
+        ConcurrentMap<String, Object> map = cache.asMap();
+        Pending token = new Pending();
+        boolean placed = map.putIfAbsent(key, token) == null;
+        Object value = loader.apply(key);
+        if (placed) {
+            complete(map, key, token, value);
+        }
+        return value;
+    }
+
+    /**
+     * 批量读取，本地未命中的键一次交给 loader（MGET）读取
+     *
+     * @param keys 缓存键值
+     * @param loader 批量读取函数，返回与传入键顺序一致的值
+     * @return 与 keys 顺序一致的值，不存在的键对应 null
+     */
+    public List<Object> getMulti(List<String> keys, Function<List<String>, List<Object>> loader) {
+        if (!tracking) {
+            return loader.apply(keys);
+        }
+        ConcurrentMap<String, Object> map = cache.asMap();
+        List<Object> values = new ArrayList<>(keys.size());
+        List<Integer> missIndexes = new ArrayList<>();
+        List<String> missKeys = new ArrayList<>();
+        List<Pending> tokens = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            Object cached = accepts(key) ? cache.getIfPresent(key) : null;
+            if (cached != null && !(cached instanceof Pending)) {
+                values.add(cached);
+                continue;
+            }
+            values.add(null);
+            missIndexes.add(i);
+            missKeys.add(key);
+            Pending token = null;
+            if (accepts(key)) {
+                token = new Pending();
+                if (map.putIfAbsent(key, token) != null) {
+                    token = null;
+                }
+            }
+            tokens.add(token);
+        }
+        if (missKeys.isEmpty()) {
+            return values;
+        }
+
+        List<Object> loaded = loader.apply(missKeys);
+        for (int i = 0; i < missKeys.size(); i++) {
+            Object value = loaded == null ? null : loaded.get(i);
+            values.set(missIndexes.get(i), value);
+            if (tokens.get(i) != null) {
+                complete(map, missKeys.get(i), tokens.get(i), value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 删除本地的值（本节点写入或删除后立即调用，不必等待失效消息）
+     */
+    public void invalidate(String key) {
+        if (accepts(key)) {
+            cache.invalidate(key);
+        }
+    }
+
+    public void invalidateAll(Collection<String> keys) {
+        for (String key : keys) {
+            invalidate(key);
+        }
+    }
+
+    // ==================== 跟踪 ====================
+
+    private TrackingArgs trackingArgs() {
+        return TrackingArgs.Builder.enabled().bcast().prefixes(prefixes);
+    }
+
+    /**
+     * 重连后重新开启跟踪（在 Lettuce 的事件线程中，不能同步等待）
+     */
+    private void enableTrackingAsync() {
+        StatefulRedisConnection<String, String> current = connection;
+        if (current == null) {
+            return;
+        }
+        current.async().clientTracking(trackingArgs()).whenComplete((reply, e) -> {
+            if (e != null) {
+                log.warn("近端缓存重新开启跟踪失败，暂停使用本地缓存", e);
+            } else {
+                onTrackingEnabled();
+                log.info("近端缓存跟踪连接已恢复");
+            }
+        });
+    }
+
+    /**
+     * 开启跟踪之前本地保存的值可能已经过期，清空后再启用
+     */
+    void onTrackingEnabled() {
+        cache.invalidateAll();
+        tracking = true;
+    }
+
+    private void onPushMessage(PushMessage message) {
+        if (!"invalidate".equals(message.getType())) {
+            return;
+        }
+        List<Object> content = message.getContent();
+        Object keys = content.size() > 1 ? content.get(1) : null;
+        if (keys instanceof List<?> list) {
+            List<String> invalidated = new ArrayList<>(list.size());
+            for (Object key : list) {
+                invalidated.add(key instanceof ByteBuffer buffer
+                        ? StringCodec.UTF8.decodeKey(buffer.duplicate()) : String.valueOf(key));
+            }
+            onInvalidate(invalidated);
+        } else {
+            onInvalidate(null);
+        }
+    }
+
+    /**
+     * 处理失效消息
+     *
+     * @param keys 失效的键，null 表示全部失效（如 FLUSHALL）
+     */
+    void onInvalidate(List<String> keys) {
+        if (keys == null) {
+            cache.invalidateAll();
+            return;
+        }
+        invalidations.add(keys.size());
+        cache.invalidateAll(keys);
+    }
+
+    /**
+     * 读取完成：占位标记仍在时替换为读到的值，期间被失效则放弃
+     */
+    private void complete(ConcurrentMap<String, Object> map, String key, Pending token, Object value) {
+        if (value != null && tracking) {
+            map.replace(key, token, value);
+        } else {
+            map.remove(key, token);
+        }
+    }
+}
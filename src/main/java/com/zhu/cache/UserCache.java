@@ -0,0 +1,458 @@
+package com.zhu.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.zhu.common.constants.CacheConstants;
+import com.zhu.domain.entity.User;
+import com.zhu.domain.vo.CacheStatsVO;
+import com.zhu.event.UserChangedEvent;
+import com.zhu.utils.BeanCopyUtils;
+import com.zhu.utils.RedisCache;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 用户两级缓存（本地 Caffeine + Redis）
+ *
+ * 1. 一级缓存：进程内 Caffeine，按估算的对象字节数淘汰，容量有界
+ * 2. 二级缓存：Redis（通过 RedisCache），多节点共享
+ * 3. 按ID缓存用户对象，用户名/邮箱只缓存到ID的映射，读取时校验映射是否仍然有效
+ * 4. 写操作后按ID精确失效，并通过 Redis 频道通知其他节点失效本地缓存
+ *
+ * 缓存中的用户对象不包含密码字段。
+ *
+ * @author xiaozhu
+ */
+@Slf4j
+@Component
+public class UserCache {
+
+    /**
+     * 当前节点标识，用于忽略自己发出的失效广播
+     */
+    private static final String NODE_ID = UUID.randomUUID().toString().replace("-", "");
+
+    private static final String NAME_PREFIX = "n:";
+
+    private static final String EMAIL_PREFIX = "e:";
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${cache.user.local-max-weight:33554432}")
+    private long localMaxWeight;
+
+    @Value("${cache.user.local-max-keys:200000}")
+    private long localMaxKeys;
+
+    @Value("${cache.user.local-expire-seconds:300}")
+    private long localExpireSeconds;
+
+    @Value("${cache.user.redis-expire-seconds:1800}")
+    private int redisExpireSeconds;
+
+    /**
+     * 一级缓存：用户ID -> 用户
+     */
+    private Cache<Long, User> localUsers;
+
+    /**
+     * 一级缓存：用户名/邮箱 -> 用户ID
+     */
+    private Cache<String, Long> localKeys;
+
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder redisMisses = new LongAdder();
+    private final LongAdder dbLoads = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        localUsers = Caffeine.newBuilder()
+                .maximumWeight(localMaxWeight)
+                .weigher((Long id, User user) -> estimateSize(user))
+                .expireAfterWrite(Duration.ofSeconds(localExpireSeconds))
+                .recordStats()
+                .build();
+        localKeys = Caffeine.newBuilder()
+                .maximumSize(localMaxKeys)
+                .expireAfterWrite(Duration.ofSeconds(localExpireSeconds))
+                .build();
+        listenerContainer.addMessageListener((message, pattern) -> onChanged(message),
+                new ChannelTopic(CacheConstants.USER_CHANGED_CHANNEL));
+    }
+
+    // ==================== 读取 ====================
+
+    /**
+     * 根据ID获取用户，依次查询本地缓存、Redis、数据库
+     *
+     * @param id 用户ID
+     * @param loader 数据库加载函数，用户不存在或已删除时返回 null
+     * @return 用户（不含密码），不存在返回 null
+     */
+    public User getById(Long id, Function<Long, User> loader) {
+        User user = getCachedById(id);
+        if (user != null) {
+            return user;
+        }
+        dbLoads.increment();
+        return put(loader.apply(id));
+    }
+
+    /**
+     * 只查询本地缓存
+     *
+     * @param id 用户ID
+     * @return 用户（不含密码），未缓存返回 null
+     */
+    public User getLocalById(Long id) {
+        return localUsers.getIfPresent(id);
+    }
+
+    /**
+     * 批量根据ID获取用户：本地缓存、Redis（一次 MGET）、数据库（一次查询）
+     *
+     * @param ids 用户ID（不重复）
+     * @param loader 数据库批量加载函数，只需返回存在且未删除的用户
+     * @return 用户ID -> 用户（不含密码），不存在的ID不在结果中
+     */
+    public Map<Long, User> getByIds(Collection<Long> ids, Function<List<Long>, List<User>> loader) {
+        Map<Long, User> result = new HashMap<>(ids.size() * 2);
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            User user = localUsers.getIfPresent(id);
+            if (user != null) {
+                result.put(id, user);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        List<Object> values = redisMultiGet(misses.stream().map(id -> CacheConstants.USER_ID_KEY + id).toList());
+        List<Long> dbIds = new ArrayList<>();
+        for (int i = 0; i < misses.size(); i++) {
+            if (values != null && values.get(i) instanceof User user) {
+                redisHits.increment();
+                localUsers.put(misses.get(i), user);
+                result.put(misses.get(i), user);
+            } else {
+                redisMisses.increment();
+                dbIds.add(misses.get(i));
+            }
+        }
+        if (dbIds.isEmpty()) {
+            return result;
+        }
+
+        dbLoads.increment();
+        for (User user : putAll(loader.apply(dbIds))) {
+            result.put(user.getId(), user);
+        }
+        return result;
+    }
+
+    /**
+     * 根据用户名获取用户
+     *
+     * @param userName 用户名
+     * @param loader 数据库加载函数，用户不存在或已删除时返回 null
+     * @return 用户（不含密码），不存在返回 null
+     */
+    public User getByUserName(String userName, Function<String, User> loader) {
+        User user = getCachedBySecondaryKey(NAME_PREFIX + userName, CacheConstants.USER_NAME_KEY + userName);
+        if (user != null && userName.equals(user.getUserName())) {
+            return user;
+        }
+        dbLoads.increment();
+        return put(loader.apply(userName));
+    }
+
+    /**
+     * 根据邮箱获取用户
+     *
+     * @param email 邮箱
+     * @param loader 数据库加载函数，用户不存在或已删除时返回 null
+     * @return 用户（不含密码），不存在返回 null
+     */
+    public User getByEmail(String email, Function<String, User> loader) {
+        User user = getCachedBySecondaryKey(EMAIL_PREFIX + email, CacheConstants.USER_EMAIL_KEY + email);
+        if (user != null && email.equals(user.getEmail())) {
+            return user;
+        }
+        dbLoads.increment();
+        return put(loader.apply(email));
+    }
+
+    // ==================== 失效 ====================
+
+    /**
+     * 写操作后失效指定用户的缓存（本地 + Redis），并广播给其他节点
+     *
+     * @param ids 用户ID列表
+     */
+    public void evict(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        List<String> redisKeys = new ArrayList<>(ids.size() * 3);
+        for (Long id : ids) {
+            if (id == null) {
+                continue;
+            }
+            // 先取出旧对象，得到需要一并删除的用户名/邮箱映射
+            User cached = localUsers.getIfPresent(id);
+            if (cached == null) {
+                cached = redisGet(CacheConstants.USER_ID_KEY + id);
+            }
+            redisKeys.add(CacheConstants.USER_ID_KEY + id);
+            if (cached != null) {
+                if (cached.getUserName() != null) {
+                    redisKeys.add(CacheConstants.USER_NAME_KEY + cached.getUserName());
+                }
+                if (cached.getEmail() != null) {
+                    redisKeys.add(CacheConstants.USER_EMAIL_KEY + cached.getEmail());
+                }
+            }
+        }
+        evictLocal(ids);
+        try {
+            redisCache.deleteMulti(redisKeys);
+            String payload = NODE_ID + "|" + ids.stream()
+                    .filter(Objects::nonNull)
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(","));
+            stringRedisTemplate.convertAndSend(CacheConstants.USER_CHANGED_CHANNEL, payload);
+        } catch (Exception e) {
+            log.warn("用户缓存失效失败，依赖过期时间兜底: ids={}", ids, e);
+        }
+    }
+
+    /**
+     * 只失效本节点的一级缓存
+     *
+     * @param ids 用户ID列表
+     */
+    public void evictLocal(Collection<Long> ids) {
+        for (Long id : ids) {
+            if (id == null) {
+                continue;
+            }
+            User cached = localUsers.getIfPresent(id);
+            if (cached != null) {
+                localKeys.invalidate(NAME_PREFIX + cached.getUserName());
+                localKeys.invalidate(EMAIL_PREFIX + cached.getEmail());
+            }
+            localUsers.invalidate(id);
+            invalidations.increment();
+        }
+    }
+
+    // ==================== 统计 ====================
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 缓存统计
+     */
+    public CacheStatsVO stats() {
+        CacheStats local = localUsers.stats();
+        long hits = redisHits.sum();
+        long misses = redisMisses.sum();
+        long requests = local.requestCount();
+
+        CacheStatsVO vo = new CacheStatsVO();
+        vo.setName("user");
+        vo.setLocalHits(local.hitCount());
+        vo.setLocalMisses(local.missCount());
+        vo.setLocalEvictions(local.evictionCount());
+        vo.setLocalSize(localUsers.estimatedSize());
+        vo.setRedisHits(hits);
+        vo.setRedisMisses(misses);
+        vo.setDbLoads(dbLoads.sum());
+        vo.setInvalidations(invalidations.sum());
+        vo.setHitRate(requests == 0 ? 0D : (double) (local.hitCount() + hits) / requests);
+        return vo;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    private User getCachedById(Long id) {
+        User user = localUsers.getIfPresent(id);
+        if (user != null) {
+            return user;
+        }
+        user = redisGet(CacheConstants.USER_ID_KEY + id);
+        if (user != null) {
+            redisHits.increment();
+            localUsers.put(id, user);
+        } else {
+            redisMisses.increment();
+        }
+        return user;
+    }
+
+    /**
+     * 通过用户名/邮箱映射查询缓存，映射可能已过时，调用方需要校验返回的用户
+     */
+    private User getCachedBySecondaryKey(String localKey, String redisKey) {
+        Long id = localKeys.getIfPresent(localKey);
+        if (id == null) {
+            Object value = redisGetRaw(redisKey);
+            if (value instanceof Number number) {
+                id = number.longValue();
+                localKeys.put(localKey, id);
+            }
+        }
+        if (id == null) {
+            return null;
+        }
+        User user = getCachedById(id);
+        if (user == null || user.getDelFlag() == null || user.getDelFlag() != 0) {
+            return null;
+        }
+        return user;
+    }
+
+    /**
+     * 写入两级缓存，返回去除密码后的副本
+     */
+    private User put(User loaded) {
+        if (loaded == null || loaded.getId() == null) {
+            return null;
+        }
+        return putAll(List.of(loaded)).get(0);
+    }
+
+    /**
+     * 批量写入两级缓存，Redis 写入通过管道一次完成，返回去除密码后的副本
+     */
+    private List<User> putAll(Collection<User> loaded) {
+        List<User> users = new ArrayList<>(loaded.size());
+        Map<String, Object> redisValues = new HashMap<>(loaded.size() * 6);
+        for (User source : loaded) {
+            if (source == null || source.getId() == null) {
+                continue;
+            }
+            User user = BeanCopyUtils.copyBean(source, User.class);
+            user.setPassword(null);
+            users.add(user);
+
+            Long id = user.getId();
+            localUsers.put(id, user);
+            redisValues.put(CacheConstants.USER_ID_KEY + id, user);
+            if (user.getUserName() != null) {
+                localKeys.put(NAME_PREFIX + user.getUserName(), id);
+                redisValues.put(CacheConstants.USER_NAME_KEY + user.getUserName(), id);
+            }
+            if (user.getEmail() != null) {
+                localKeys.put(EMAIL_PREFIX + user.getEmail(), id);
+                redisValues.put(CacheConstants.USER_EMAIL_KEY + user.getEmail(), id);
+            }
+        }
+        try {
+            redisCache.setMulti(redisValues, redisExpireSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("写入用户缓存失败: users={}", users.size(), e);
+        }
+        return users;
+    }
+
+    private User redisGet(String key) {
+        Object value = redisGetRaw(key);
+        return value instanceof User user ? user : null;
+    }
+
+    private List<Object> redisMultiGet(List<String> keys) {
+        try {
+            return redisCache.getMulti(keys);
+        } catch (Exception e) {
+            log.warn("批量读取用户缓存失败，降级查询数据库: keys={}", keys.size(), e);
+            return null;
+        }
+    }
+
+    private Object redisGetRaw(String key) {
+        try {
+            return redisCache.getCacheObject(key);
+        } catch (Exception e) {
+            log.warn("读取用户缓存失败，降级查询数据库: key={}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * 处理其他节点发出的失效广播，并转发为本地的用户变更事件
+     */
+    private void onChanged(Message message) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        int split = payload.indexOf('|');
+        if (split < 0 || payload.startsWith(NODE_ID)) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (String id : payload.substring(split + 1).split(",")) {
+            if (!id.isEmpty()) {
+                ids.add(Long.valueOf(id));
+            }
+        }
+        evictLocal(ids);
+        eventPublisher.publishEvent(new UserChangedEvent(ids));
+    }
+
+    /**
+     * 估算用户对象占用的字节数，用于按大小淘汰
+     */
+    private static int estimateSize(User user) {
+        // 对象头 + 字段引用 + Long/Date/Integer 包装对象
+        int size = 160;
+        size += sizeOf(user.getUserName());
+        size += sizeOf(user.getNickName());
+        size += sizeOf(user.getType());
+        size += sizeOf(user.getStatus());
+        size += sizeOf(user.getEmail());
+        size += sizeOf(user.getPhonenumber());
+        size += sizeOf(user.getSex());
+        size += sizeOf(user.getAvatar());
+        return size;
+    }
+
+    private static int sizeOf(String value) {
+        return value == null ? 0 : 40 + value.length() * 2;
+    }
+}
@@ -0,0 +1,72 @@
+package com.zhu.common.constants;
+
+/**
+ * 缓存相关常量（Redis 键前缀、频道名称）
+ *
+ * @author xiaozhu
+ */
+public class CacheConstants {
+
+    private CacheConstants() {
+    }
+
+    /**
+     * 用户缓存：按ID缓存的用户对象
+     */
+    public static final String USER_ID_KEY = "user:id:";
+
+    /**
+     * 用户缓存：用户名 -> 用户ID
+     */
+    public static final String USER_NAME_KEY = "user:name:";
+
+    /**
+     * 用户缓存：邮箱 -> 用户ID
+     */
+    public static final String USER_EMAIL_KEY = "user:email:";
+
+    /**
+     * 用户变更广播频道，用于通知其他节点失效本地缓存
+     */
+    public static final String USER_CHANGED_CHANNEL = "user:changed";
+
+    /**
+     * 字典版本号，字典变更时自增
+     */
+    public static final String DICT_VERSION_KEY = "dict:version";
+
+    /**
+     * 字典变更广播频道，消息内容为新的版本号
+     */
+    public static final String DICT_CHANGED_CHANNEL = "dict:changed";
+
+    /**
+     * 已吊销的 token（ZSET，成员为 JWT ID，分数为 token 过期时间）
+     */
+    public static final String TOKEN_REVOKED_KEY = "token:revoked";
+
+    /**
+     * token 吊销广播频道，消息内容为 JWT ID
+     */
+    public static final String TOKEN_REVOKED_CHANNEL = "token:revoked";
+
+    /**
+     * 用户统计计数（HASH，字段为 类型|状态|性别|注册日期，值为用户数）
+     */
+    public static final String USER_STATS_KEY = "user:stats";
+
+    /**
+     * 用户统计对账锁，同一时刻只有一个节点对账
+     */
+    public static final String USER_STATS_LOCK_KEY = "user:stats:lock";
+    /**
+     * 统计查询结果缓存（增量统计未就绪或按时间范围查询时，缓存聚合查询的结果）
+     */
+    public static final String USER_STATS_QUERY_KEY = "user:stats:query:";
+
+    /**
+     * 用户表版本戳（随机值，任何用户变更后替换），用于列表和统计接口的 ETag
+     */
+    public static final String USER_VERSION_KEY = "user:version";
+
+}
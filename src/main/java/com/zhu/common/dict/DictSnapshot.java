@@ -0,0 +1,191 @@
+package com.zhu.common.dict;
+
+import com.zhu.domain.entity.DictData;
+import com.zhu.domain.entity.DictType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 字典快照（不可变）
+ *
+ * 按 字典类型 -> 字典值 -> 字典标签 两级索引，构建完成后不再修改，可以被任意线程无锁读取。
+ * 批量转换时先按类型取出 {@link Labels}，之后每行只需按字典值查找，不需要拼接缓存 key。
+ *
+ * 快照包含全部有效的字典数据，查不到即说明字典中不存在（相当于缓存了未命中），
+ * 字典变更时整体重建新快照并原子替换，版本号用于判断各节点的快照是否已过时。
+ *
+ * @author xiaozhu
+ */
+public final class DictSnapshot {
+
+    /**
+     * 空快照（字典尚未加载或加载失败时使用）
+     */
+    public static final DictSnapshot EMPTY = new DictSnapshot(-1L, Map.of(), Map.of());
+
+    private final long version;
+
+    private final Map<String, Labels> types;
+
+    private final Map<String, List<DictData>> data;
+
+    private DictSnapshot(long version, Map<String, Labels> types, Map<String, List<DictData>> data) {
+        this.version = version;
+        this.types = types;
+        this.data = data;
+    }
+
+    /**
+     * 根据字典类型和字典数据构建快照，同一类型下重复的字典值以排在前面的为准
+     *
+     * @param version 字典版本号
+     * @param dictTypes 有效的字典类型（没有字典数据的类型也会被收录）
+     * @param dictDataList 字典数据（按 dict_sort 排序）
+     * @return 字典快照
+     */
+    public static DictSnapshot of(long version, Collection<DictType> dictTypes, Collection<DictData> dictDataList) {
+        Map<String, List<DictData>> grouped = new LinkedHashMap<>();
+        for (DictType type : dictTypes) {
+            if (type.getDictType() != null) {
+                grouped.put(type.getDictType(), new ArrayList<>());
+            }
+        }
+        for (DictData item : dictDataList) {
+            if (item.getDictType() == null) {
+                continue;
+            }
+            grouped.computeIfAbsent(item.getDictType(), k -> new ArrayList<>()).add(item);
+        }
+
+        Map<String, Labels> types = new HashMap<>(grouped.size() * 2);
+        Map<String, List<DictData>> data = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((type, items) -> {
+            Map<String, String> labels = new LinkedHashMap<>();
+            for (DictData item : items) {
+                if (item.getDictValue() != null && item.getDictLabel() != null) {
+                    labels.putIfAbsent(item.getDictValue(), item.getDictLabel());
+                }
+            }
+            types.put(type, new Labels(labels));
+            data.put(type, List.copyOf(items));
+        });
+        return new DictSnapshot(version, Map.copyOf(types), Map.copyOf(data));
+    }
+
+    /**
+     * 快照对应的字典版本号，空快照为 -1
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取某个字典类型的标签表，类型不存在时返回空表
+     *
+     * @param dictType 字典类型
+     * @return 标签表
+     */
+    public Labels labels(String dictType) {
+        Labels labels = dictType == null ? null : types.get(dictType);
+        return labels != null ? labels : Labels.EMPTY;
+    }
+
+    /**
+     * 根据字典类型和字典值获取字典标签
+     *
+     * @param dictType 字典类型
+     * @param dictValue 字典值
+     * @return 字典标签，不存在时返回 null
+     */
+    public String getLabel(String dictType, String dictValue) {
+        return labels(dictType).get(dictValue);
+    }
+
+    /**
+     * 获取某个字典类型的全部字典数据（按 dict_sort 排序）
+     *
+     * @param dictType 字典类型
+     * @return 字典数据列表（不可修改），类型不存在时返回空列表
+     */
+    public List<DictData> getDictData(String dictType) {
+        List<DictData> items = dictType == null ? null : data.get(dictType);
+        return items != null ? items : List.of();
+    }
+
+    /**
+     * 快照中的字典类型数量
+     */
+    public int size() {
+        return types.size();
+    }
+
+    /**
+     * 单个字典类型的标签表
+     * 字典值绝大多数是 0-9 的单个数字，这部分直接按下标存放在数组中，其余的走哈希表
+     */
+    public static final class Labels {
+
+        static final Labels EMPTY = new Labels(Map.of());
+
+        private final String[] digits = new String[10];
+
+        private final Map<String, String> others;
+
+        private Labels(Map<String, String> labels) {
+            Map<String, String> others = new HashMap<>();
+            labels.forEach((value, label) -> {
+                int index = digitIndex(value);
+                if (index >= 0) {
+                    digits[index] = label;
+                } else {
+                    others.put(value, label);
+                }
+            });
+            this.others = Map.copyOf(others);
+        }
+
+        /**
+         * 获取字典标签
+         *
+         * @param dictValue 字典值
+         * @return 字典标签，不存在时返回 null
+         */
+        public String get(String dictValue) {
+            if (dictValue == null) {
+                return null;
+            }
+            int index = digitIndex(dictValue);
+            if (index >= 0) {
+                return digits[index];
+            }
+            return others.isEmpty() ? null : others.get(dictValue);
+        }
+
+        /**
+         * 获取字典标签
+         *
+         * @param dictValue 字典值
+         * @param defaultValue 默认值（字典值为空或查询不到时返回）
+         * @return 字典标签
+         */
+        public String get(String dictValue, String defaultValue) {
+            String label = get(dictValue);
+            return label != null ? label : defaultValue;
+        }
+
+        private static int digitIndex(String value) {
+            if (value.length() == 1) {
+                char c = value.charAt(0);
+                if (c >= '0' && c <= '9') {
+                    return c - '0';
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.zhu.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * 数据源并发限制配置
+ *
+ * 开启后把连接池包装为 {@link ConcurrencyLimitedDataSource}，许可数默认等于 HikariCP 的 maximum-pool-size，
+ * 等待超时默认等于 connection-timeout。主要配合虚拟线程模式（spring.threads.virtual.enabled）使用：
+ * 请求不再受 Tomcat 线程数限制，需要在数据库前面排队。
+ *
+ * @author xiaozhu
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.limiter", name = "enabled", havingValue = "true")
+public class DataSourceLimiterConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceLimiterPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                int poolSize = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                long poolTimeout = bean instanceof HikariDataSource hikari ? hikari.getConnectionTimeout() : 30000L;
+                int permits = environment.getProperty("datasource.limiter.permits", Integer.class, poolSize);
+                long timeout = environment.getProperty("datasource.limiter.timeout-ms", Long.class, poolTimeout);
+                log.info("数据源并发限制已开启: bean={}, permits={}, timeout={}ms", beanName, permits, timeout);
+                return new ConcurrencyLimitedDataSource(dataSource, permits, timeout);
+            }
+        };
+    }
+
+    /**
+     * 许可使用情况：datasource.limiter.available / datasource.limiter.waiting
+     */
+    @Bean
+    public MeterBinder dataSourceLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitedDataSource limited) {
+                bind(registry, limited);
+            }
+        };
+    }
+
+    private static void bind(MeterRegistry registry, ConcurrencyLimitedDataSource dataSource) {
+        Gauge.builder("datasource.limiter.available", dataSource, ConcurrencyLimitedDataSource::getAvailablePermits)
+                .description("数据源剩余的并发许可数").register(registry);
+        Gauge.builder("datasource.limiter.waiting", dataSource, ConcurrencyLimitedDataSource::getWaitingThreads)
+                .description("等待数据源许可的线程数").register(registry);
+    }
+}
@@ -3,14 +3,19 @@ package com.zhu.config;
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONReader;
 import com.alibaba.fastjson2.JSONWriter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 
 /**
  * FastJson序列化(用于序列化反序列化redis)
+ * 传入 MeterRegistry 时记录序列化/反序列化耗时（redis.serializer）和字节数（redis.serializer.bytes）
  * @author xiaozhu
  * @date 2022年09月08日 22:13                          $
  */
@@ -21,12 +26,38 @@ public class FastJsonRedisSerializer<T> implements RedisSerializer<T>
 
     private final Class<T> clazz;
 
+    private final Timer serializeTimer;
+
+    private final Timer deserializeTimer;
+
+    private final DistributionSummary serializedBytes;
+
     // fastjson2 不再需要全局配置 AutoTypeSupport
 
     public FastJsonRedisSerializer(Class<T> clazz)
+    {
+        this(clazz, null);
+    }
+
+    public FastJsonRedisSerializer(Class<T> clazz, MeterRegistry meterRegistry)
     {
         super();
         this.clazz = clazz;
+        if (meterRegistry != null)
+        {
+            this.serializeTimer = Timer.builder("redis.serializer").tag("operation", "serialize")
+                    .description("Redis 值序列化耗时").register(meterRegistry);
+            this.deserializeTimer = Timer.builder("redis.serializer").tag("operation", "deserialize")
+                    .description("Redis 值反序列化耗时").register(meterRegistry);
+            this.serializedBytes = DistributionSummary.builder("redis.serializer.bytes").baseUnit("bytes")
+                    .description("Redis 值序列化后的字节数").register(meterRegistry);
+        }
+        else
+        {
+            this.serializeTimer = null;
+            this.deserializeTimer = null;
+            this.serializedBytes = null;
+        }
     }
 
     @Override
@@ -36,7 +67,15 @@ public class FastJsonRedisSerializer<T> implements RedisSerializer<T>
         {
             return new byte[0];
         }
-        return JSON.toJSONString(t, JSONWriter.Feature.WriteClassName).getBytes(DEFAULT_CHARSET);
+        if (serializeTimer == null)
+        {
+            return encode(t);
+        }
+        long start = System.nanoTime();
+        byte[] bytes = encode(t);
+        serializeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        serializedBytes.record(bytes.length);
+        return bytes;
     }
 
     @Override
@@ -46,8 +85,34 @@ public class FastJsonRedisSerializer<T> implements RedisSerializer<T>
         {
             return null;
         }
-        String str = new String(bytes, DEFAULT_CHARSET);
+        if (deserializeTimer == null)
+        {
+            return decode(bytes);
+        }
+        long start = System.nanoTime();
+        T value = decode(bytes);
+        deserializeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return value;
+    }
 
-        return JSON.parseObject(str, clazz, JSONReader.Feature.SupportAutoType);
+    /**
+     * 编码（直接写 UTF-8 字节，不经过中间的 String）
+     */
+    protected byte[] encode(T t)
+    {
+        return JSON.toJSONBytes(t, JSONWriter.Feature.WriteClassName);
+    }
+
+    /**
+     * 解码
+     */
+    protected T decode(byte[] bytes)
+    {
+        return JSON.parseObject(bytes, clazz, JSONReader.Feature.SupportAutoType);
+    }
+
+    protected Class<T> getType()
+    {
+        return clazz;
     }
 }
@@ -0,0 +1,170 @@
+package com.zhu.config;
+
+import com.alibaba.fastjson2.JSONB;
+import com.alibaba.fastjson2.JSONFactory;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
+import com.alibaba.fastjson2.SymbolTable;
+import com.alibaba.fastjson2.filter.Filter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Arrays;
+
+/**
+ * 二进制 Redis 序列化（fastjson2 JSONB）
+ *
+ * 1. 类型信息通过类型注册表写成整数编号，不再以文本形式写入完整类名
+ * 2. 直接读写 byte[]，不经过中间的 String
+ * 3. 超过阈值的值使用 LZ4 压缩，压缩后没有变小则保留原样
+ * 4. 兼容读取 {@link FastJsonRedisSerializer} 写入的文本 JSON，切换后无需清空缓存
+ *
+ * 格式：首字节为格式标记（文本 JSON 不会以这两个字节开头）
+ * <pre>
+ * 0x01 | JSONB
+ * 0x02 | 原始长度（4 字节） | LZ4(JSONB)
+ * </pre>
+ *
+ * @author xiaozhu
+ */
+public class JsonbRedisSerializer<T> extends FastJsonRedisSerializer<T>
+{
+    /**
+     * 类型注册表：类名按下标编号，编号写入缓存值中。
+     * 只能在末尾追加，不能删除或调整顺序，否则已写入的值无法正确读取
+     */
+    static final String[] TYPE_REGISTRY = {
+            "com.zhu.domain.entity.User",
+            "com.zhu.domain.entity.DictData",
+            "com.zhu.domain.entity.DictType",
+            "com.zhu.domain.vo.uservo.UserVO",
+            "com.zhu.domain.vo.uservo.UserDetailVO",
+            "java.util.ArrayList",
+            "java.util.HashMap",
+            "java.util.LinkedHashMap",
+            "java.util.HashSet",
+            "com.alibaba.fastjson2.JSONObject",
+            "com.alibaba.fastjson2.JSONArray",
+            "com.zhu.utils.RedisCache$LoadedValue",
+            "com.zhu.domain.vo.uservo.UserStatisticsVO",
+            "com.zhu.domain.vo.uservo.UserTypeStatisticsVO",
+            "com.zhu.domain.vo.uservo.UserMonthStatisticsVO",
+    };
+
+    static final byte FORMAT_JSONB = 0x01;
+
+    static final byte FORMAT_JSONB_LZ4 = 0x02;
+
+    private static final int LZ4_HEADER_LENGTH = 5;
+
+    private static final SymbolTable SYMBOL_TABLE = JSONB.symbolTable(TYPE_REGISTRY);
+
+    /**
+     * 反序列化时只允许本项目和常用集合类型，避免任意类型的 autoType
+     */
+    private static final Filter[] AUTO_TYPE_FILTER = {
+            JSONReader.autoTypeFilter(true, "com.zhu.", "java.util.", "com.alibaba.fastjson2.JSON")
+    };
+
+    private static final JSONWriter.Feature[] WRITE_FEATURES = {
+            JSONWriter.Feature.WriteClassName,
+            JSONWriter.Feature.WriteNameAsSymbol,
+    };
+
+    private final int compressThreshold;
+
+    private final LZ4Compressor compressor;
+
+    private final LZ4SafeDecompressor decompressor;
+
+    public JsonbRedisSerializer(Class<T> clazz)
+    {
+        this(clazz, 0, null);
+    }
+
+    /**
+     * @param compressThreshold 超过该字节数的值使用 LZ4 压缩，小于等于 0 表示不压缩
+     */
+    public JsonbRedisSerializer(Class<T> clazz, int compressThreshold, MeterRegistry meterRegistry)
+    {
+        super(clazz, meterRegistry);
+        this.compressThreshold = compressThreshold;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.safeDecompressor();
+    }
+
+    @Override
+    protected byte[] encode(T t)
+    {
+        byte[] jsonb = JSONB.toBytes(t, SYMBOL_TABLE, WRITE_FEATURES);
+        if (compressThreshold > 0 && jsonb.length > compressThreshold)
+        {
+            byte[] compressed = compress(jsonb);
+            if (compressed != null)
+            {
+                return compressed;
+            }
+        }
+        byte[] bytes = new byte[jsonb.length + 1];
+        bytes[0] = FORMAT_JSONB;
+        System.arraycopy(jsonb, 0, bytes, 1, jsonb.length);
+        return bytes;
+    }
+
+    @Override
+    protected T decode(byte[] bytes)
+    {
+        switch (bytes[0])
+        {
+            case FORMAT_JSONB:
+                return read(bytes, 1, bytes.length - 1);
+            case FORMAT_JSONB_LZ4:
+                int length = ((bytes[1] & 0xFF) << 24) | ((bytes[2] & 0xFF) << 16)
+                        | ((bytes[3] & 0xFF) << 8) | (bytes[4] & 0xFF);
+                byte[] jsonb = new byte[length];
+                decompressor.decompress(bytes, LZ4_HEADER_LENGTH, bytes.length - LZ4_HEADER_LENGTH, jsonb, 0, length);
+                return read(jsonb, 0, length);
+            default:
+                // 切换前写入的文本 JSON
+                return super.decode(bytes);
+        }
+    }
+
+    /**
+     * 压缩，压缩后没有变小时返回 null
+     */
+    private byte[] compress(byte[] jsonb)
+    {
+        int maxLength = compressor.maxCompressedLength(jsonb.length);
+        byte[] buffer = new byte[LZ4_HEADER_LENGTH + maxLength];
+        int compressedLength = compressor.compress(jsonb, 0, jsonb.length, buffer, LZ4_HEADER_LENGTH, maxLength);
+        if (LZ4_HEADER_LENGTH + compressedLength >= jsonb.length + 1)
+        {
+            return null;
+        }
+        buffer[0] = FORMAT_JSONB_LZ4;
+        buffer[1] = (byte) (jsonb.length >>> 24);
+        buffer[2] = (byte) (jsonb.length >>> 16);
+        buffer[3] = (byte) (jsonb.length >>> 8);
+        buffer[4] = (byte) jsonb.length;
+        return Arrays.copyOf(buffer, LZ4_HEADER_LENGTH + compressedLength);
+    }
+
+    private T read(byte[] bytes, int offset, int length)
+    {
+        JSONReader.Context context = new JSONReader.Context(JSONFactory.getDefaultObjectReaderProvider(),
+                SYMBOL_TABLE, AUTO_TYPE_FILTER);
+        try (JSONReader reader = JSONReader.ofJSONB(bytes, offset, length, context))
+        {
+            return reader.read(getType());
+        }
+        catch (RuntimeException e)
+        {
+            throw new SerializationException("JSONB 反序列化失败", e);
+        }
+    }
+}
@@ -3,9 +3,14 @@ package com.zhu.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.zhu.monitor.SqlStatsInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import javax.sql.DataSource;
+
 /**
  * MyBatis Plus 配置类
  * 
@@ -36,4 +41,16 @@ public class MybatisPlusConfig {
         
         return interceptor;
     }
+
+    /**
+     * 配置 SQL 执行统计拦截器
+     * 按语句记录耗时直方图、行数、参数形状，慢 SQL 自动 EXPLAIN
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "stats.sql", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SqlStatsInterceptor sqlStatsInterceptor(DataSource dataSource,
+                                                   @Value("${stats.sql.slow-threshold-ms:200}") long slowThresholdMs,
+                                                   @Value("${stats.sql.explain-enabled:true}") boolean explainEnabled) {
+        return new SqlStatsInterceptor(dataSource, slowThresholdMs, explainEnabled);
+    }
 }
@@ -1,11 +1,22 @@
 package com.zhu.config;
 
+import com.zhu.cache.RedisNearCache;
+import io.lettuce.core.RedisURI;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.util.StringUtils;
 
+import java.time.Duration;
+import java.util.List;
 
 /**
  * Redis配置类
@@ -15,14 +26,23 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 @Configuration
 public class RedisConfig {
 
+    /**
+     * 值序列化方式：json（文本 JSON，带完整类名）或 jsonb（二进制，类型编号 + LZ4 压缩，兼容读取 json）
+     * 多节点部署时，先让所有节点升级到能读取 jsonb 的版本，再切换为 jsonb
+     */
     @Bean
     @SuppressWarnings(value = { "unchecked", "rawtypes" })
-    public RedisTemplate<Object, Object> redisTemplate(RedisConnectionFactory connectionFactory)
+    public RedisTemplate<Object, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       ObjectProvider<MeterRegistry> meterRegistry,
+                                                       @Value("${redis.serializer.codec:json}") String codec,
+                                                       @Value("${redis.serializer.compress-threshold:1024}") int compressThreshold)
     {
         RedisTemplate<Object, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
-        FastJsonRedisSerializer serializer = new FastJsonRedisSerializer(Object.class);
+        FastJsonRedisSerializer serializer = "jsonb".equalsIgnoreCase(codec)
+                ? new JsonbRedisSerializer(Object.class, compressThreshold, meterRegistry.getIfAvailable())
+                : new FastJsonRedisSerializer(Object.class, meterRegistry.getIfAvailable());
 
         // 使用StringRedisSerializer来序列化和反序列化redis的key值
         template.setKeySerializer(new StringRedisSerializer());
@@ -35,4 +55,45 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * Redis 消息监听容器（发布/订阅），用于多节点之间广播缓存失效
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory)
+    {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * RedisCache 的近端缓存（CLIENT TRACKING 广播模式），只对配置的键前缀生效
+     */
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnProperty(name = "cache.near.enabled", havingValue = "true")
+    public RedisNearCache redisNearCache(RedisProperties properties,
+                                         @Value("${cache.near.prefixes:user:stats:query:,user:version}") List<String> prefixes,
+                                         @Value("${cache.near.max-size:10000}") long maxSize,
+                                         @Value("${cache.near.expire-seconds:600}") long expireSeconds)
+    {
+        RedisURI.Builder uri = RedisURI.builder()
+                .withHost(properties.getHost())
+                .withPort(properties.getPort())
+                .withDatabase(properties.getDatabase())
+                .withSsl(properties.getSsl().isEnabled());
+        if (StringUtils.hasText(properties.getPassword())) {
+            if (StringUtils.hasText(properties.getUsername())) {
+                uri.withAuthentication(properties.getUsername(), properties.getPassword());
+            } else {
+                uri.withPassword(properties.getPassword().toCharArray());
+            }
+        }
+        if (properties.getTimeout() != null) {
+            uri.withTimeout(properties.getTimeout());
+        }
+        RedisNearCache nearCache = new RedisNearCache(prefixes, maxSize, Duration.ofSeconds(expireSeconds));
+        nearCache.start(uri.build());
+        return nearCache;
+    }
 }
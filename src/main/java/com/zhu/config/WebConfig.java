@@ -3,27 +3,51 @@ package com.zhu.config;
 import com.alibaba.fastjson2.JSONWriter;
 import com.alibaba.fastjson2.support.config.FastJsonConfig;
 import com.alibaba.fastjson2.support.spring6.http.converter.FastJsonHttpMessageConverter;
-import org.springframework.context.annotation.Bean;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.TimeZone;
 
 /**
- * 跨域配置类和日期序列化（转化成我们日常的那种格式）
+ * 跨域配置类和HTTP响应序列化（日期转化成我们日常的那种格式）
+ *
+ * 1. JSON 序列化引擎可配置：fastjson（默认）或 jackson，两者输出格式一致
+ *    （日期 yyyy-MM-dd HH:mm:ss、Long 转为字符串、不输出 null 字段）；
+ *    VO 上 @JsonFormat 指定的时区只有 jackson 使用，fastjson 使用 JVM 时区，部署时 JVM 时区应为 Asia/Shanghai
+ * 2. 格式化输出只在 http.serializer.pretty=true 时开启（开发环境），生产环境输出紧凑 JSON
+ * 3. Accept: application/cbor 时返回 CBOR 二进制，数据结构与 JSON 相同
+ * 4. gzip 压缩由 Tomcat 根据 Accept-Encoding 协商（server.compression）
+ *
  * @author xiaozhu
  * @date 2022年09月08日 22:13                          $
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
 
+    @Value("${http.serializer.engine:fastjson}")
+    private String engine = "fastjson";
+
+    @Value("${http.serializer.pretty:false}")
+    private boolean pretty;
+
+    @Value("${http.serializer.cbor-enabled:true}")
+    private boolean cborEnabled = true;
 
     /*
      * 跨域配置
@@ -51,12 +75,11 @@ public class WebConfig implements WebMvcConfigurer {
 
 
     /*
-     * 将日期序列化
+     * 将日期序列化（fastjson）
      * @author xiaozhu
      * @date 2022/10/3 23:33
      * @return org.springframework.http.converter.HttpMessageConverter
      */
-    @Bean//使用@Bean注入fastJsonHttpMessageConvert
     public HttpMessageConverter<?> fastJsonHttpMessageConverters() {
         //1.需要定义一个Convert转换消息的对象
         FastJsonHttpMessageConverter fastConverter = new FastJsonHttpMessageConverter();
@@ -78,26 +101,64 @@ public class WebConfig implements WebMvcConfigurer {
         fastJsonConfig.setCharset(StandardCharsets.UTF_8);
         
         // 设置日期格式
-        fastJsonConfig.setDateFormat("yyyy-MM-dd HH:mm:ss");
+        fastJsonConfig.setDateFormat(DATE_FORMAT);
         
-        // 配置序列化特性：格式化输出、将Long转为String（避免前端精度丢失）
-        fastJsonConfig.setWriterFeatures(
-            JSONWriter.Feature.PrettyFormat,
-            JSONWriter.Feature.WriteLongAsString
-        );
+        // 配置序列化特性：将Long转为String（避免前端精度丢失），开发环境可开启格式化输出
+        if (pretty) {
+            fastJsonConfig.setWriterFeatures(
+                JSONWriter.Feature.PrettyFormat,
+                JSONWriter.Feature.WriteLongAsString
+            );
+        } else {
+            fastJsonConfig.setWriterFeatures(JSONWriter.Feature.WriteLongAsString);
+        }
         
         fastConverter.setFastJsonConfig(fastJsonConfig);
         return fastConverter;
     }
 
+    /**
+     * Jackson JSON 转换器，输出格式与 fastjson 转换器一致
+     */
+    public HttpMessageConverter<?> jacksonHttpMessageConverter() {
+        MappingJackson2HttpMessageConverter converter =
+                new MappingJackson2HttpMessageConverter(configure(Jackson2ObjectMapperBuilder.json()).indentOutput(pretty).build());
+        converter.setDefaultCharset(StandardCharsets.UTF_8);
+        return converter;
+    }
+
+    /**
+     * CBOR 转换器（Accept: application/cbor），数据结构与 JSON 相同
+     */
+    public HttpMessageConverter<?> cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(configure(Jackson2ObjectMapperBuilder.cbor()).build());
+    }
+
     @Override
     public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
         // 添加 StringHttpMessageConverter 并设置为 UTF-8（用于处理纯文本响应）
         StringHttpMessageConverter stringConverter = new StringHttpMessageConverter(StandardCharsets.UTF_8);
         converters.add(0, stringConverter);
         
-        // 添加 FastJson 转换器
-        converters.add(1, fastJsonHttpMessageConverters());
+        // 添加配置的 JSON 转换器
+        converters.add(1, "jackson".equalsIgnoreCase(engine) ? jacksonHttpMessageConverter() : fastJsonHttpMessageConverters());
+
+        // 添加 CBOR 转换器，只有 Accept 中明确要求 application/cbor 时才会选中
+        if (cborEnabled) {
+            converters.add(2, cborHttpMessageConverter());
+        }
+    }
+
+    /**
+     * Jackson 与 fastjson 保持一致的序列化配置
+     */
+    private Jackson2ObjectMapperBuilder configure(Jackson2ObjectMapperBuilder builder) {
+        return builder
+                .dateFormat(new SimpleDateFormat(DATE_FORMAT))
+                .timeZone(TimeZone.getDefault())
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .serializerByType(Long.class, ToStringSerializer.instance)
+                .serializerByType(Long.TYPE, ToStringSerializer.instance);
     }
 
 }
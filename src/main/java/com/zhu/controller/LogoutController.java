@@ -0,0 +1,60 @@
+package com.zhu.controller;
+
+import com.zhu.annoation.SystemLog;
+import com.zhu.common.enums.AppHttpCodeEnum;
+import com.zhu.common.result.ResponseResult;
+import com.zhu.security.filter.JwtAuthenticationTokenFilter;
+import com.zhu.security.token.TokenRevocationService;
+import com.zhu.security.token.VerifiedToken;
+import com.zhu.security.token.VerifiedTokenCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 退出登录控制器
+ *
+ * 吊销当前请求携带的 token：写入 Redis 吊销集合并广播，各节点的 JWT 过滤器随后拒绝该 token，
+ * 同时移除本节点已验签 token 缓存中的条目
+ *
+ * @author xiaozhu
+ */
+@Slf4j
+@RestController
+@Tag(name = "认证接口", description = "登录认证相关接口")
+public class LogoutController {
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    /**
+     * 退出登录
+     */
+    @PostMapping("/logout")
+    @SystemLog(businessName = "退出登录")
+    @Operation(summary = "退出登录", description = "吊销请求头中的 token")
+    public ResponseResult logout(HttpServletRequest request) {
+        String token = JwtAuthenticationTokenFilter.resolveToken(request);
+        if (!StringUtils.hasText(token)) {
+            return ResponseResult.errorResult(AppHttpCodeEnum.NEED_LOGIN, "未携带token");
+        }
+        VerifiedToken verified;
+        try {
+            verified = verifiedTokenCache.verify(token);
+        } catch (Exception e) {
+            log.debug("token 校验失败: {}", e.getMessage());
+            return ResponseResult.errorResult(AppHttpCodeEnum.NEED_LOGIN, "token非法或已过期");
+        }
+        tokenRevocationService.revoke(verified.tokenId(), verified.expiresAt());
+        verifiedTokenCache.invalidate(token);
+        return ResponseResult.okResult();
+    }
+}
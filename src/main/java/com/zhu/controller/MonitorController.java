@@ -0,0 +1,82 @@
+package com.zhu.controller;
+
+import com.zhu.audit.AuditLogWriter;
+import com.zhu.cache.UserCache;
+import com.zhu.common.result.ResponseResult;
+import com.zhu.domain.vo.SqlMonitorVO;
+import com.zhu.monitor.SqlStatsInterceptor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 监控控制器
+ * 暴露缓存、审计日志、SQL 执行等运行时统计信息
+ *
+ * @author xiaozhu
+ */
+@RestController
+@RequestMapping("/monitor")
+@Tag(name = "监控接口", description = "运行时统计相关接口")
+public class MonitorController {
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired(required = false)
+    private SqlStatsInterceptor sqlStatsInterceptor;
+
+    /**
+     * 用户缓存统计
+     */
+    @GetMapping("/cache/user")
+    @Operation(summary = "用户缓存统计", description = "本地缓存与Redis缓存的命中、未命中、淘汰次数")
+    public ResponseResult userCacheStats() {
+        return ResponseResult.okResult(userCache.stats());
+    }
+
+    /**
+     * 审计日志管道统计
+     */
+    @GetMapping("/audit")
+    @Operation(summary = "审计日志统计", description = "异步审计管道的入队、采样、丢弃、写入次数")
+    public ResponseResult auditStats() {
+        return ResponseResult.okResult(auditLogWriter.stats());
+    }
+
+    /**
+     * SQL 执行统计
+     */
+    @GetMapping("/sql")
+    @Operation(summary = "SQL执行统计", description = "各Mapper语句的耗时分位数（p50/p99/p999）、行数、参数形状，以及最慢的执行计划")
+    public ResponseResult sqlStats(
+            @RequestParam(value = "planLimit", defaultValue = "10") @Parameter(description = "返回的执行计划个数") Integer planLimit) {
+        if (sqlStatsInterceptor == null) {
+            return ResponseResult.errorResult(404, "SQL统计未开启");
+        }
+        return ResponseResult.okResult(new SqlMonitorVO(sqlStatsInterceptor.statistics(),
+                sqlStatsInterceptor.worstPlans(planLimit)));
+    }
+
+    /**
+     * 清空 SQL 执行统计
+     */
+    @DeleteMapping("/sql")
+    @Operation(summary = "清空SQL执行统计", description = "清空各语句的统计和执行计划，重新开始统计")
+    public ResponseResult resetSqlStats() {
+        if (sqlStatsInterceptor != null) {
+            sqlStatsInterceptor.reset();
+        }
+        return ResponseResult.okResult();
+    }
+
+}
@@ -7,16 +7,29 @@ import com.zhu.domain.dto.userdto.UserQueryDTO;
 import com.zhu.domain.dto.userdto.UserUpdateDTO;
 import com.zhu.service.UserService;
 import com.zhu.common.result.ResponseResult;
+import com.zhu.utils.WebUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 用户控制器
@@ -26,6 +39,8 @@ import java.util.List;
  * 2. 复杂查询使用XML配置（Mapper层实现）
  * 3. 使用DTO接收请求参数，使用VO返回响应数据
  * 4. RESTful API设计规范
+ * 5. 用户详情、用户列表和统计接口支持条件请求：If-None-Match 与 ETag 一致时直接返回 304，
+ *    不查询数据库、不序列化响应体
  *
  * @author xiaozhu
  * @date 2022年10月04日 0:23
@@ -46,7 +61,10 @@ public class UserController {
     @GetMapping("/all")
     @SystemLog(businessName = "获取所有用户")
     @Operation(summary = "获取所有用户", description = "查询所有未删除的用户列表")
-    public ResponseResult getAllUsers() {
+    public ResponseResult getAllUsers(WebRequest request) {
+        if (notModified(request, userService.getUsersETag())) {
+            return null;
+        }
         return userService.getAllUsers();
     }
 
@@ -56,7 +74,10 @@ public class UserController {
     @GetMapping("/{id}")
     @SystemLog(businessName = "根据ID获取用户")
     @Operation(summary = "根据ID获取用户", description = "通过用户ID查询用户详情")
-    public ResponseResult getUserById(@PathVariable("id") @Parameter(description = "用户ID") Long id) {
+    public ResponseResult getUserById(@PathVariable("id") @Parameter(description = "用户ID") Long id, WebRequest request) {
+        if (notModified(request, userService.getUserETag(id))) {
+            return null;
+        }
         return userService.getUserById(id);
     }
 
@@ -82,14 +103,20 @@ public class UserController {
 
     /**
      * 分页查询用户
+     * 传入 cursor 参数时使用游标分页（第一页传空字符串），否则使用页码分页
      */
     @GetMapping("/page")
     @SystemLog(businessName = "分页查询用户")
-    @Operation(summary = "分页查询用户", description = "支持分页的用户列表查询")
+    @Operation(summary = "分页查询用户", description = "支持页码分页和游标分页，游标分页的深分页代价与第一页相同")
     public ResponseResult getUsersByPage(
             @RequestParam(value = "pageNum", defaultValue = "1") @Parameter(description = "页码") Integer pageNum,
-            @RequestParam(value = "pageSize", defaultValue = "10") @Parameter(description = "每页数量") Integer pageSize) {
-        return userService.getUsersByPage(pageNum, pageSize);
+            @RequestParam(value = "pageSize", defaultValue = "10") @Parameter(description = "每页数量") Integer pageSize,
+            @RequestParam(value = "cursor", required = false) @Parameter(description = "游标（上一页返回的 nextCursor，第一页传空字符串）") String cursor,
+            @RequestParam(value = "searchCount", required = false) @Parameter(description = "是否查询总数（页码分页默认是，游标分页默认否）") Boolean searchCount) {
+        if (cursor != null) {
+            return userService.getUsersByCursor(cursor, pageSize, searchCount);
+        }
+        return userService.getUsersByPage(pageNum, pageSize, searchCount);
     }
 
     /**
@@ -164,13 +191,42 @@ public class UserController {
         return userService.searchUsersByCondition(dto);
     }
 
+    /**
+     * 导出用户到 Excel（流式写出，支持与多条件查询相同的筛选条件）
+     */
+    @GetMapping("/export")
+    @SystemLog(businessName = "导出用户")
+    @Operation(summary = "导出用户", description = "按查询条件流式导出用户到 Excel")
+    public void exportUsers(UserQueryDTO dto, HttpServletResponse response) throws IOException {
+        WebUtils.setExcelDownloadHeader("用户列表.xlsx", response);
+        userService.exportUsers(dto, response.getOutputStream());
+    }
+
+    /**
+     * 从 Excel/CSV 批量导入用户（流式解析，分批插入）
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @SystemLog(businessName = "导入用户")
+    @Operation(summary = "导入用户", description = "上传 xlsx/xls/csv 文件批量导入用户，表头：用户名、昵称、密码、邮箱、手机号、性别、用户类型；返回成功/失败条数和失败行的原因")
+    public ResponseResult importUsers(@RequestParam("file") @Parameter(description = "导入文件") MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            return ResponseResult.errorResult(400, "导入文件不能为空");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return userService.importUsers(in, file.getOriginalFilename());
+        }
+    }
+
     /**
      * 统计各类型用户数量
      */
     @GetMapping("/statistics/type")
     @SystemLog(businessName = "统计各类型用户数量")
     @Operation(summary = "统计各类型用户数量", description = "统计不同类型用户的数量及状态分布")
-    public ResponseResult countUsersByType() {
+    public ResponseResult countUsersByType(WebRequest request) {
+        if (notModified(request, userService.getStatisticsETag())) {
+            return null;
+        }
         return userService.countUsersByType();
     }
 
@@ -182,7 +238,11 @@ public class UserController {
     @Operation(summary = "查询用户统计信息", description = "获取用户的综合统计数据")
     public ResponseResult getUserStatistics(
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") @Parameter(description = "开始时间") Date startTime,
-            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") @Parameter(description = "结束时间") Date endTime) {
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") @Parameter(description = "结束时间") Date endTime,
+            WebRequest request) {
+        if (notModified(request, userService.getStatisticsETag())) {
+            return null;
+        }
         return userService.getUserStatistics(startTime, endTime);
     }
 
@@ -218,6 +278,18 @@ public class UserController {
         return userService.searchUsers(keyword);
     }
 
+    /**
+     * 用户名联想
+     */
+    @GetMapping("/suggest")
+    @SystemLog(businessName = "用户名联想", sampleRate = 0.01)
+    @Operation(summary = "用户名联想", description = "按用户名或昵称前缀联想，最近注册的用户在前")
+    public ResponseResult suggestUsers(
+            @RequestParam("prefix") @Parameter(description = "用户名或昵称前缀") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") @Parameter(description = "限制数量（最大50）") Integer limit) {
+        return userService.suggestUsers(prefix, limit);
+    }
+
     /**
      * 查询用户及其创建者信息
      */
@@ -249,7 +321,11 @@ public class UserController {
     @SystemLog(businessName = "按月统计用户注册数量")
     @Operation(summary = "按月统计用户注册数量", description = "统计指定年份或全部年份的月度注册数据")
     public ResponseResult countUsersByMonth(
-            @RequestParam(required = false) @Parameter(description = "年份") Integer year) {
+            @RequestParam(required = false) @Parameter(description = "年份") Integer year,
+            WebRequest request) {
+        if (notModified(request, userService.getStatisticsETag())) {
+            return null;
+        }
         return userService.countUsersByMonth(year);
     }
 
@@ -263,4 +339,83 @@ public class UserController {
         return userService.updateUserSelective(dto);
     }
 
+    // ==================== 流式接口（Accept: application/x-ndjson） ====================
+    // 与上面的同名接口路径相同，只有请求头 Accept 为 application/x-ndjson 时才会匹配，
+    // 默认仍返回 ResponseResult 包装的 JSON
+
+    /**
+     * 获取所有用户（NDJSON 流式）
+     */
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @SystemLog(businessName = "获取所有用户（流式）")
+    @Operation(summary = "获取所有用户（流式）", description = "Accept: application/x-ndjson 时逐行输出用户")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return ndjson(out -> userService.streamAllUsers(out));
+    }
+
+    /**
+     * 根据状态查询用户（NDJSON 流式）
+     */
+    @GetMapping(value = "/status/{status}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @SystemLog(businessName = "根据状态查询用户（流式）")
+    @Operation(summary = "根据状态查询用户（流式）", description = "Accept: application/x-ndjson 时逐行输出用户")
+    public ResponseEntity<StreamingResponseBody> streamUsersByStatus(@PathVariable("status") @Parameter(description = "用户状态") String status) {
+        return ndjson(out -> userService.streamUsersByStatus(status, out));
+    }
+
+    /**
+     * 根据类型查询用户（NDJSON 流式）
+     */
+    @GetMapping(value = "/type/{type}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @SystemLog(businessName = "根据类型查询用户（流式）")
+    @Operation(summary = "根据类型查询用户（流式）", description = "Accept: application/x-ndjson 时逐行输出用户")
+    public ResponseEntity<StreamingResponseBody> streamUsersByType(@PathVariable("type") @Parameter(description = "用户类型") String type) {
+        return ndjson(out -> userService.streamUsersByType(type, out));
+    }
+
+    /**
+     * 多条件动态查询用户（NDJSON 流式）
+     */
+    @GetMapping(value = "/search/condition", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @SystemLog(businessName = "多条件查询用户（流式）")
+    @Operation(summary = "多条件动态查询用户（流式）", description = "Accept: application/x-ndjson 时逐行输出用户")
+    public ResponseEntity<StreamingResponseBody> streamUsersByCondition(UserQueryDTO dto) {
+        return ndjson(out -> userService.streamUsersByCondition(dto, out));
+    }
+
+    /**
+     * 模糊搜索用户（NDJSON 流式）
+     */
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @SystemLog(businessName = "模糊搜索用户（流式）")
+    @Operation(summary = "模糊搜索用户（流式）", description = "Accept: application/x-ndjson 时逐行输出用户")
+    public ResponseEntity<StreamingResponseBody> streamSearchUsers(@RequestParam("keyword") @Parameter(description = "搜索关键词") String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ndjson(out -> userService.streamSearchUsers(keyword, out));
+    }
+
+    /**
+     * 检查条件请求：与 If-None-Match 一致时返回 true（响应 304，方法返回 null 即可），
+     * 否则在响应中写入 ETag；etag 为 null 时不做检查
+     */
+    private boolean notModified(WebRequest request, String etag) {
+        return etag != null && request.checkNotModified(etag);
+    }
+
+    /**
+     * 构建 NDJSON 流式响应，在异步线程中边查询边写出
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<OutputStream> writer) {
+        StreamingResponseBody body = out -> {
+            BufferedOutputStream buffered = new BufferedOutputStream(out, 32 * 1024);
+            writer.accept(buffered);
+            buffered.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
 }
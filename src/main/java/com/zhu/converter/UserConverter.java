@@ -1,9 +1,11 @@
 package com.zhu.converter;
 
+import com.zhu.common.dict.DictSnapshot;
 import com.zhu.domain.dto.userdto.UserAddDTO;
 import com.zhu.domain.dto.userdto.UserUpdateDTO;
 import com.zhu.domain.entity.User;
 import com.zhu.domain.vo.uservo.UserDetailVO;
+import com.zhu.domain.vo.uservo.UserExcelVO;
 import com.zhu.domain.vo.uservo.UserVO;
 import com.zhu.utils.BeanCopyUtils;
 import com.zhu.utils.DictUtils;
@@ -53,10 +55,29 @@ public class UserConverter {
     }
 
     /**
-     * User 列表转 UserVO 列表
+     * User 列表转 UserVO 列表（带业务描述字段）
+     * 整个列表只取一次字典快照，每行按字典值直接查找标签
      */
     public static List<UserVO> toVOList(List<User> users) {
-        return BeanCopyUtils.copyBeanList(users, UserVO.class);
+        List<UserVO> vos = BeanCopyUtils.copyBeanList(users, UserVO.class);
+        if (vos.isEmpty()) {
+            return vos;
+        }
+        DictSnapshot dict = DictUtils.snapshot();
+        DictSnapshot.Labels types = dict.labels(DictUtils.USER_TYPE);
+        DictSnapshot.Labels statuses = dict.labels(DictUtils.NORMAL_DISABLE);
+        DictSnapshot.Labels sexes = dict.labels(DictUtils.USER_SEX);
+        for (int i = 0; i < vos.size(); i++) {
+            UserVO vo = vos.get(i);
+            if (vo == null) {
+                continue;
+            }
+            User user = users.get(i);
+            vo.setTypeDesc(types.get(user.getType(), DictUtils.UNKNOWN));
+            vo.setStatusDesc(statuses.get(user.getStatus(), DictUtils.UNKNOWN));
+            vo.setSexDesc(sexes.get(user.getSex(), DictUtils.UNKNOWN));
+        }
+        return vos;
     }
 
     /**
@@ -71,6 +92,17 @@ public class UserConverter {
         return vo;
     }
 
+    /**
+     * User 转 UserExcelVO（导出用，带业务描述字段）
+     */
+    public static UserExcelVO toExcelVO(User user) {
+        UserExcelVO vo = BeanCopyUtils.copyBean(user, UserExcelVO.class);
+        vo.setTypeDesc(DictUtils.getTypeDesc(user.getType()));
+        vo.setStatusDesc(DictUtils.getStatusDesc(user.getStatus()));
+        vo.setSexDesc(DictUtils.getSexDesc(user.getSex()));
+        return vo;
+    }
+
     // ==================== 私有辅助方法 ====================
 
     /**
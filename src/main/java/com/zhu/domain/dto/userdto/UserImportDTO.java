@@ -0,0 +1,43 @@
+package com.zhu.domain.dto.userdto;
+
+import com.alibaba.excel.annotation.ExcelIgnore;
+import com.alibaba.excel.annotation.ExcelProperty;
+import lombok.Data;
+
+/**
+ * 用户导入DTO
+ * 用于 EasyExcel 读取导入文件（xlsx/xls/csv）中的一行，按表头名称匹配列
+ * 性别、用户类型既可以填字典值（0/1），也可以填字典标签（男/女、普通用户/管理员）
+ *
+ * @author xiaozhu
+ */
+@Data
+public class UserImportDTO {
+
+    @ExcelProperty("用户名")
+    private String userName;
+
+    @ExcelProperty("昵称")
+    private String nickName;
+
+    @ExcelProperty("密码")
+    private String password;
+
+    @ExcelProperty("邮箱")
+    private String email;
+
+    @ExcelProperty("手机号")
+    private String phonenumber;
+
+    @ExcelProperty("性别")
+    private String sex;
+
+    @ExcelProperty("用户类型")
+    private String type;
+
+    /**
+     * 在文件中的行号（从 1 开始，包含表头），用于错误报告
+     */
+    @ExcelIgnore
+    private Integer rowNumber;
+}
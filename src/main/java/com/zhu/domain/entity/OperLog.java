@@ -0,0 +1,95 @@
+package com.zhu.domain.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 操作日志表(OperLog)表实体类
+ *
+ * @author xiaozhu
+ */
+@SuppressWarnings("serial")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@TableName("sys_oper_log")
+@Schema(description = "操作日志实体类")
+public class OperLog implements Serializable {
+
+    /**
+     * 日志主键
+     */
+    private Long id;
+
+    /**
+     * 业务名称
+     */
+    @Schema(description = "业务名称")
+    private String businessName;
+
+    /**
+     * 调用的类名和方法名
+     */
+    @Schema(description = "调用的类名和方法名")
+    private String classMethod;
+
+    /**
+     * HTTP 请求方式
+     */
+    @Schema(description = "HTTP 请求方式")
+    private String requestMethod;
+
+    /**
+     * 请求 URL
+     */
+    @Schema(description = "请求 URL")
+    private String requestUrl;
+
+    /**
+     * 请求 IP
+     */
+    @Schema(description = "请求 IP")
+    private String ip;
+
+    /**
+     * 请求参数（超长截断）
+     */
+    @Schema(description = "请求参数")
+    private String requestArgs;
+
+    /**
+     * 返回结果（超长截断）
+     */
+    @Schema(description = "返回结果")
+    private String response;
+
+    /**
+     * 执行状态（0成功 1异常）
+     */
+    @Schema(description = "执行状态（0成功 1异常）")
+    private String status;
+
+    /**
+     * 异常信息
+     */
+    @Schema(description = "异常信息")
+    private String errorMsg;
+
+    /**
+     * 耗时（毫秒）
+     */
+    @Schema(description = "耗时（毫秒）")
+    private Long costTime;
+
+    /**
+     * 操作时间
+     */
+    @Schema(description = "操作时间")
+    private Date operTime;
+}
@@ -0,0 +1,39 @@
+package com.zhu.domain.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * 审计日志统计VO
+ * 用于返回异步审计管道的入队、采样、丢弃、写入情况
+ *
+ * @author xiaozhu
+ */
+@Data
+@Schema(description = "审计日志统计视图对象")
+public class AuditStatsVO {
+
+    @Schema(description = "进入管道的事件数", example = "10000")
+    private Long published;
+
+    @Schema(description = "因采样被跳过的事件数", example = "5000")
+    private Long sampledOut;
+
+    @Schema(description = "因队列已满被丢弃的事件数", example = "0")
+    private Long dropped;
+
+    @Schema(description = "成功写入数据库的条数", example = "5000")
+    private Long written;
+
+    @Schema(description = "写入数据库失败的条数", example = "0")
+    private Long failed;
+
+    @Schema(description = "被截断的请求参数/返回结果个数", example = "20")
+    private Long truncated;
+
+    @Schema(description = "队列中等待写入的事件数", example = "3")
+    private Integer pending;
+
+    @Schema(description = "队列容量", example = "8192")
+    private Integer capacity;
+}
@@ -0,0 +1,46 @@
+package com.zhu.domain.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * 缓存统计VO
+ * 用于返回多级缓存的命中、未命中、淘汰情况
+ *
+ * @author xiaozhu
+ */
+@Data
+@Schema(description = "缓存统计视图对象")
+public class CacheStatsVO {
+
+    @Schema(description = "缓存名称", example = "user")
+    private String name;
+
+    @Schema(description = "本地缓存命中次数", example = "10000")
+    private Long localHits;
+
+    @Schema(description = "本地缓存未命中次数", example = "100")
+    private Long localMisses;
+
+    @Schema(description = "本地缓存淘汰次数", example = "10")
+    private Long localEvictions;
+
+    @Schema(description = "本地缓存条目数", example = "5000")
+    private Long localSize;
+
+    @Schema(description = "Redis 命中次数", example = "90")
+    private Long redisHits;
+
+    @Schema(description = "Redis 未命中次数", example = "10")
+    private Long redisMisses;
+
+    @Schema(description = "数据库加载次数", example = "10")
+    private Long dbLoads;
+
+    @Schema(description = "主动失效次数", example = "3")
+    private Long invalidations;
+
+    @Schema(description = "整体命中率（本地+Redis）", example = "0.999")
+    private Double hitRate;
+
+}
@@ -0,0 +1,33 @@
+package com.zhu.domain.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 游标分页VO
+ * 用于返回基于游标（keyset）的分页结果
+ *
+ * @author xiaozhu
+ */
+@Data
+@Schema(description = "游标分页视图对象")
+public class CursorPageVO<T> {
+
+    @Schema(description = "当前页数据")
+    private List<T> records;
+
+    @Schema(description = "每页数量", example = "10")
+    private Integer size;
+
+    @Schema(description = "下一页游标（不透明字符串，没有更多数据时为空）", example = "djE6MTcwNDA4MDAwMDAwMDoxMjM")
+    private String nextCursor;
+
+    @Schema(description = "是否还有下一页", example = "true")
+    private Boolean hasMore;
+
+    @Schema(description = "总记录数（仅在 searchCount=true 时返回）", example = "1000")
+    private Long total;
+
+}
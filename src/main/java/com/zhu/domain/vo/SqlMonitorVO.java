@@ -0,0 +1,27 @@
+package com.zhu.domain.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * SQL 监控VO
+ * 用于返回各语句的耗时统计和最慢的执行计划
+ *
+ * @author xiaozhu
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "SQL监控视图对象")
+public class SqlMonitorVO {
+
+    @Schema(description = "各语句统计，按 p99 降序")
+    private List<SqlStatsVO> statements;
+
+    @Schema(description = "最慢的执行计划，按耗时降序")
+    private List<SqlPlanVO> worstPlans;
+}
@@ -0,0 +1,34 @@
+package com.zhu.domain.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 慢 SQL 执行计划VO
+ * 用于返回慢 SQL 的 EXPLAIN 结果
+ *
+ * @author xiaozhu
+ */
+@Data
+@Schema(description = "慢SQL执行计划视图对象")
+public class SqlPlanVO {
+
+    @Schema(description = "语句ID（Mapper方法全名）", example = "com.zhu.mapper.UserMapper.searchUsers")
+    private String statementId;
+
+    @Schema(description = "SQL", example = "SELECT ... FROM sys_user WHERE ...")
+    private String sql;
+
+    @Schema(description = "本次执行耗时（毫秒）", example = "350.2")
+    private Double elapsedMs;
+
+    @Schema(description = "采集时间")
+    private Date capturedAt;
+
+    @Schema(description = "EXPLAIN 结果，每行为 列名 -> 值")
+    private List<Map<String, Object>> plan;
+}
@@ -0,0 +1,47 @@
+package com.zhu.domain.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * SQL 语句统计VO
+ * 用于返回单个 Mapper 语句的执行次数、耗时分位数和参数形状
+ *
+ * @author xiaozhu
+ */
+@Data
+@Schema(description = "SQL语句统计视图对象")
+public class SqlStatsVO {
+
+    @Schema(description = "语句ID（Mapper方法全名）", example = "com.zhu.mapper.UserMapper.selectUsersByIds")
+    private String statementId;
+
+    @Schema(description = "执行次数", example = "1000")
+    private Long count;
+
+    @Schema(description = "失败次数", example = "0")
+    private Long errors;
+
+    @Schema(description = "返回/影响的总行数", example = "5000")
+    private Long rows;
+
+    @Schema(description = "平均耗时（毫秒）", example = "1.2")
+    private Double meanMs;
+
+    @Schema(description = "p50 耗时（毫秒）", example = "0.9")
+    private Double p50Ms;
+
+    @Schema(description = "p99 耗时（毫秒）", example = "5.1")
+    private Double p99Ms;
+
+    @Schema(description = "p999 耗时（毫秒）", example = "20.3")
+    private Double p999Ms;
+
+    @Schema(description = "最大耗时（毫秒）", example = "35.0")
+    private Double maxMs;
+
+    @Schema(description = "参数形状 -> 次数", example = "{\"{ids:List[≤8]}\": 10}")
+    private Map<String, Long> shapes;
+}
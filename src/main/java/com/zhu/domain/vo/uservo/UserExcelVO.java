@@ -0,0 +1,55 @@
+package com.zhu.domain.vo.uservo;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import com.alibaba.excel.annotation.format.DateTimeFormat;
+import com.alibaba.excel.annotation.write.style.ColumnWidth;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 用户导出VO
+ * 用于 EasyExcel 导出用户列表（不包含敏感信息如密码）
+ *
+ * @author xiaozhu
+ */
+@Data
+@ColumnWidth(16)
+public class UserExcelVO {
+
+    @ExcelProperty("用户ID")
+    private Long id;
+
+    @ExcelProperty("用户名")
+    private String userName;
+
+    @ExcelProperty("昵称")
+    private String nickName;
+
+    @ExcelProperty("用户类型")
+    private String typeDesc;
+
+    @ExcelProperty("账号状态")
+    private String statusDesc;
+
+    @ColumnWidth(28)
+    @ExcelProperty("邮箱")
+    private String email;
+
+    @ExcelProperty("手机号")
+    private String phonenumber;
+
+    @ExcelProperty("性别")
+    private String sexDesc;
+
+    @ColumnWidth(22)
+    @DateTimeFormat("yyyy-MM-dd HH:mm:ss")
+    @ExcelProperty("创建时间")
+    private Date createTime;
+
+    @ColumnWidth(22)
+    @DateTimeFormat("yyyy-MM-dd HH:mm:ss")
+    @ExcelProperty("更新时间")
+    private Date updateTime;
+
+}
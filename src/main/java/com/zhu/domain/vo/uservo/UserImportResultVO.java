@@ -0,0 +1,54 @@
+package com.zhu.domain.vo.uservo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户导入结果VO
+ * 用于返回批量导入的成功/失败条数和逐行的错误原因
+ *
+ * @author xiaozhu
+ */
+@Data
+@Schema(description = "用户导入结果视图对象")
+public class UserImportResultVO {
+
+    @Schema(description = "读取的数据行数", example = "100000")
+    private Long total = 0L;
+
+    @Schema(description = "导入成功的行数", example = "99990")
+    private Long success = 0L;
+
+    @Schema(description = "导入失败的行数", example = "10")
+    private Long failed = 0L;
+
+    @Schema(description = "耗时（毫秒）", example = "3500")
+    private Long costTime;
+
+    @Schema(description = "失败的行（最多返回前 1000 条）")
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * 单行错误
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "导入失败的行")
+    public static class RowError {
+
+        @Schema(description = "行号（包含表头）", example = "12")
+        private Integer rowNumber;
+
+        @Schema(description = "用户名", example = "zhangsan")
+        private String userName;
+
+        @Schema(description = "失败原因", example = "用户名已存在")
+        private String message;
+    }
+}
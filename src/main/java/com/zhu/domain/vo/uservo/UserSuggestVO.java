@@ -0,0 +1,28 @@
+package com.zhu.domain.vo.uservo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用户名联想VO
+ * 用于输入框联想，只包含展示需要的字段
+ *
+ * @author xiaozhu
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "用户名联想视图对象")
+public class UserSuggestVO {
+
+    @Schema(description = "用户ID", example = "1")
+    private Long id;
+
+    @Schema(description = "用户名", example = "admin")
+    private String userName;
+
+    @Schema(description = "昵称", example = "管理员")
+    private String nickName;
+}
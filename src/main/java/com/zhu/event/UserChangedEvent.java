@@ -0,0 +1,21 @@
+package com.zhu.event;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 用户变更事件
+ *
+ * 本节点写操作完成后由 UserServiceImpl 发布，收到其他节点的变更广播时由 UserCache 发布，
+ * 搜索索引等进程内的派生数据监听该事件，按ID重新加载并增量更新。
+ *
+ * @param ids 发生变更（新增、修改、删除）的用户ID
+ * @author xiaozhu
+ */
+public record UserChangedEvent(Collection<Long> ids) {
+
+    public UserChangedEvent {
+        ids = ids == null ? List.of() : ids.stream().filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,88 @@
+package com.zhu.handler.excel;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.metadata.WriteSheet;
+import com.zhu.converter.UserConverter;
+import com.zhu.domain.entity.User;
+import com.zhu.domain.vo.uservo.UserExcelVO;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户流式导出处理器
+ * 逐行接收 MyBatis 结果并分批写入 EasyExcel，内存中最多只保留一个批次
+ *
+ * @author xiaozhu
+ */
+public class UserExcelExportHandler implements ResultHandler<User> {
+
+    /**
+     * 每批写入的行数
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * 每个 sheet 的最大行数（xlsx 上限 1048576 行，预留表头）
+     */
+    private static final int MAX_ROWS_PER_SHEET = 1_000_000;
+
+    private final ExcelWriter excelWriter;
+
+    private final List<UserExcelVO> buffer = new ArrayList<>(BATCH_SIZE);
+
+    private WriteSheet currentSheet;
+
+    private int sheetRows;
+
+    private int sheetCount;
+
+    private long total;
+
+    public UserExcelExportHandler(ExcelWriter excelWriter) {
+        this.excelWriter = excelWriter;
+    }
+
+    @Override
+    public void handleResult(ResultContext<? extends User> context) {
+        buffer.add(UserConverter.toExcelVO(context.getResultObject()));
+        if (buffer.size() >= BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * 写出剩余数据，没有数据时也写出一个只有表头的 sheet
+     *
+     * @return 导出的总行数
+     */
+    public long finish() {
+        flush();
+        if (currentSheet == null) {
+            excelWriter.write(buffer, nextSheet());
+        }
+        return total;
+    }
+
+    private void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        if (currentSheet == null || sheetRows + buffer.size() > MAX_ROWS_PER_SHEET) {
+            currentSheet = nextSheet();
+            sheetRows = 0;
+        }
+        excelWriter.write(buffer, currentSheet);
+        sheetRows += buffer.size();
+        total += buffer.size();
+        buffer.clear();
+    }
+
+    private WriteSheet nextSheet() {
+        sheetCount++;
+        return EasyExcel.writerSheet(sheetCount - 1, "用户列表" + (sheetCount == 1 ? "" : sheetCount)).build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.zhu.handler.excel;
+
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.read.listener.ReadListener;
+import com.zhu.domain.dto.userdto.UserImportDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 用户流式导入监听器
+ * EasyExcel 逐行解析，攒够一批后交给批处理函数（校验、查重、批量插入），内存中最多只保留一个批次
+ *
+ * @author xiaozhu
+ */
+public class UserExcelImportListener implements ReadListener<UserImportDTO> {
+
+    /**
+     * 每批处理的行数
+     */
+    public static final int BATCH_SIZE = 1000;
+
+    private final Consumer<List<UserImportDTO>> batchHandler;
+
+    private final List<UserImportDTO> buffer = new ArrayList<>(BATCH_SIZE);
+
+    public UserExcelImportListener(Consumer<List<UserImportDTO>> batchHandler) {
+        this.batchHandler = batchHandler;
+    }
+
+    @Override
+    public void invoke(UserImportDTO row, AnalysisContext context) {
+        // rowIndex 从 0 开始（包含表头），转为用户在表格中看到的行号
+        row.setRowNumber(context.readRowHolder().getRowIndex() + 1);
+        buffer.add(row);
+        if (buffer.size() >= BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    @Override
+    public void doAfterAllAnalysed(AnalysisContext context) {
+        flush();
+    }
+
+    private void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        // 批处理函数不能持有传入的列表，处理完后会被清空复用
+        batchHandler.accept(buffer);
+        buffer.clear();
+    }
+}
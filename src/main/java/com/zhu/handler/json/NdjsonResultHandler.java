@@ -0,0 +1,63 @@
+package com.zhu.handler.json;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONWriter;
+import com.alibaba.fastjson2.filter.Filter;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+
+/**
+ * NDJSON 流式输出处理器
+ * 逐行接收 MyBatis 结果，转换后直接写入输出流（每行一个 JSON 对象）
+ *
+ * 输出流阻塞时 handleResult 不返回，JDBC 也不会继续拉取下一批数据，
+ * 慢客户端会自然地把压力传导回数据库游标，而不是在内存中堆积。
+ *
+ * @author xiaozhu
+ */
+public class NdjsonResultHandler<T> implements ResultHandler<T> {
+
+    /**
+     * 与 HTTP 消息转换器保持一致的日期格式
+     */
+    private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+    private static final Filter[] NO_FILTERS = new Filter[0];
+
+    private final OutputStream out;
+
+    private final Function<T, ?> converter;
+
+    private long count;
+
+    public NdjsonResultHandler(OutputStream out, Function<T, ?> converter) {
+        this.out = out;
+        this.converter = converter;
+    }
+
+    @Override
+    public void handleResult(ResultContext<? extends T> context) {
+        try {
+            JSON.writeTo(out, converter.apply(context.getResultObject()), DATE_FORMAT, NO_FILTERS,
+                    JSONWriter.Feature.WriteLongAsString);
+            out.write('\n');
+            count++;
+        } catch (IOException e) {
+            // 客户端断开连接，停止读取剩余数据
+            context.stop();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 已写出的行数
+     */
+    public long getCount() {
+        return count;
+    }
+}
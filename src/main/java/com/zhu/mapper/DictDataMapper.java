@@ -29,4 +29,11 @@ public interface DictDataMapper extends BaseMapper<DictData> {
      * @return 字典标签
      */
     String selectDictLabel(@Param("dictType") String dictType, @Param("dictValue") String dictValue);
+
+    /**
+     * 查询全部有效的字典数据（用于构建字典快照）
+     *
+     * @return 字典数据列表
+     */
+    List<DictData> selectAllDictData();
 }
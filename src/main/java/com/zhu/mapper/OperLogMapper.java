@@ -0,0 +1,23 @@
+package com.zhu.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.zhu.domain.entity.OperLog;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 操作日志表(OperLog)表数据库访问层
+ *
+ * @author xiaozhu
+ */
+public interface OperLogMapper extends BaseMapper<OperLog> {
+
+    /**
+     * 批量插入操作日志（单条多值 INSERT）
+     *
+     * @param list 操作日志列表
+     * @return 插入行数
+     */
+    int insertBatch(@Param("list") List<OperLog> list);
+}
@@ -2,12 +2,15 @@ package com.zhu.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.zhu.domain.entity.User;
+import com.zhu.stats.UserStatsCell;
 import com.zhu.domain.vo.uservo.UserDetailVO;
 import com.zhu.domain.vo.uservo.UserMonthStatisticsVO;
 import com.zhu.domain.vo.uservo.UserStatisticsVO;
 import com.zhu.domain.vo.uservo.UserTypeStatisticsVO;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -45,6 +48,43 @@ public interface UserMapper extends BaseMapper<User> {
                                       @Param("startTime") Date startTime,
                                       @Param("endTime") Date endTime);
 
+    /**
+     * 多条件流式查询用户（逐行回调，不在内存中保留完整结果集）
+     *
+     * @param userName 用户名
+     * @param nickName 昵称
+     * @param email 邮箱
+     * @param phonenumber 手机号
+     * @param status 状态
+     * @param type 用户类型
+     * @param sex 性别
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @param handler 结果处理器
+     */
+    void streamUsersByCondition(@Param("userName") String userName,
+                                @Param("nickName") String nickName,
+                                @Param("email") String email,
+                                @Param("phonenumber") String phonenumber,
+                                @Param("status") String status,
+                                @Param("type") String type,
+                                @Param("sex") String sex,
+                                @Param("startTime") Date startTime,
+                                @Param("endTime") Date endTime,
+                                ResultHandler<User> handler);
+
+    /**
+     * 游标分页查询用户（按 create_time DESC, id DESC 定位，不使用 OFFSET）
+     *
+     * @param lastCreateTime 上一页最后一条记录的创建时间
+     * @param lastId 上一页最后一条记录的ID，为空表示第一页
+     * @param limit 查询数量
+     * @return 用户列表
+     */
+    List<User> selectUsersBySeek(@Param("lastCreateTime") Date lastCreateTime,
+                                 @Param("lastId") Long lastId,
+                                 @Param("limit") Integer limit);
+
     /**
      * 统计各类型用户数量
      *
@@ -70,6 +110,14 @@ public interface UserMapper extends BaseMapper<User> {
      */
     List<User> selectUsersByIds(@Param("ids") List<Long> ids);
 
+    /**
+     * 查询指定时间之后新增、修改或删除的用户ID（包括已删除的用户），用于内存索引的增量对账
+     *
+     * @param since 起始时间
+     * @return 用户ID列表
+     */
+    List<Long> selectIdsChangedSince(@Param("since") Date since);
+
     /**
      * 查询最近注册的用户
      *
@@ -88,6 +136,14 @@ public interface UserMapper extends BaseMapper<User> {
      */
     List<User> searchUsers(@Param("keyword") String keyword);
 
+    /**
+     * 模糊搜索用户（流式，逐行回调）
+     *
+     * @param keyword 关键词
+     * @param handler 结果处理器
+     */
+    void streamSearchUsers(@Param("keyword") String keyword, ResultHandler<User> handler);
+
     /**
      * 查询用户及其创建者信息
      *
@@ -116,6 +172,29 @@ public interface UserMapper extends BaseMapper<User> {
      */
     List<UserMonthStatisticsVO> countUsersByMonth(@Param("year") Integer year);
 
+    /**
+     * 按 类型 × 状态 × 性别 × 注册日期 统计用户数，用于统计计数器对账
+     *
+     * @return 统计单元格
+     */
+    List<UserStatsCell> countUsersByCell();
+
+    /**
+     * 查询已存在（未删除）的用户名，用于批量导入时查重
+     *
+     * @param userNames 用户名列表
+     * @return 已存在的用户名
+     */
+    List<String> selectExistingUserNames(@Param("userNames") Collection<String> userNames);
+
+    /**
+     * 批量插入用户（多行 VALUES），插入后回填自增ID
+     *
+     * @param list 用户列表
+     * @return 插入行数
+     */
+    int insertBatch(@Param("list") List<User> list);
+
     /**
      * 动态更新用户信息（只更新非空字段）
      *
@@ -124,4 +203,21 @@ public interface UserMapper extends BaseMapper<User> {
      */
     int updateUserSelective(User user);
 
+    /**
+     * 查询并锁定（SELECT ... FOR UPDATE）未删除的用户，只返回计入统计的字段
+     * 需在事务中调用：并发删除同一批用户时后者等待行锁，之后只能查到仍未删除的行
+     *
+     * @param ids ID列表
+     * @return 未删除的用户
+     */
+    List<User> selectLiveUsersForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 批量逻辑删除未删除的用户
+     *
+     * @param ids ID列表
+     * @return 删除数量
+     */
+    int logicDeleteByIds(@Param("ids") Collection<Long> ids);
+
 }
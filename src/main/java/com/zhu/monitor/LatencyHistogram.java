@@ -0,0 +1,121 @@
+package com.zhu.monitor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 延迟直方图（HDR 风格的对数-线性分桶）
+ *
+ * 1. 每个 2 的幂区间再线性分为 32 个桶，任意值的相对误差不超过 1/32（约 3%），小于 64 的值精确记录
+ * 2. 桶计数用 AtomicLongArray，记录时只有一次数组下标计算和一次原子自增，可以在热路径上并发调用
+ * 3. 取分位数时从低到高累加桶计数，返回命中桶的上界（与 HdrHistogram 的 highestEquivalentValue 一致）
+ *
+ * 记录单位由调用方决定（SQL 统计中为微秒），超出上限的值记入最后一个桶。
+ *
+ * @author xiaozhu
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 可记录的最大值为 2^40 - 1（以微秒计约 12 天）
+     */
+    private static final int MAX_MAGNITUDE = 40;
+
+    private static final long MAX_VALUE = (1L << MAX_MAGNITUDE) - 1;
+
+    private static final int BUCKET_COUNT = indexOf(MAX_VALUE) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 记录一个值，负数按 0 记录
+     */
+    public void record(long value) {
+        long v = Math.min(Math.max(value, 0L), MAX_VALUE);
+        buckets.incrementAndGet(indexOf(v));
+        count.increment();
+        sum.add(v);
+        long current;
+        while (v > (current = max.get()) && !max.compareAndSet(current, v)) {
+            // 重试直到写入成功或已有更大的值
+        }
+    }
+
+    /**
+     * 分位数对应的值
+     *
+     * @param percentile 0 ~ 100
+     * @return 分位数所在桶的上界，没有记录时为 0
+     */
+    public long percentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(total * Math.min(percentile, 100.0) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * 值所在的桶：指数 e 使 (v >> e) 落在 [32, 64) 内，桶号为 e * 32 + (v >> e)
+     */
+    static int indexOf(long value) {
+        int exponent = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return (exponent << SUB_BUCKET_BITS) + (int) (value >>> exponent);
+    }
+
+    /**
+     * 桶内的最小值
+     */
+    static long lowerBound(int index) {
+        int exponent = Math.max(0, (index >> SUB_BUCKET_BITS) - 1);
+        return (long) (index - (exponent << SUB_BUCKET_BITS)) << exponent;
+    }
+
+    /**
+     * 桶内的最大值
+     */
+    static long upperBound(int index) {
+        return lowerBound(index + 1) - 1;
+    }
+}
@@ -0,0 +1,320 @@
+package com.zhu.monitor;
+
+import com.zhu.domain.vo.SqlPlanVO;
+import com.zhu.domain.vo.SqlStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * SQL 执行统计拦截器
+ *
+ * 1. 按 MappedStatement ID（即 Mapper 方法）记录执行耗时直方图、返回/影响行数、失败次数
+ * 2. 记录参数的"形状"（参数名、类型、集合大小的量级），用于区分同一语句不同的调用方式，如 IN 列表长度
+ * 3. 执行时间超过阈值的语句在后台线程中用同样的参数执行 EXPLAIN，每个语句保留最慢一次执行的执行计划；
+ *    同一语句每分钟最多 EXPLAIN 一次，队列满时直接放弃，不影响业务请求
+ *
+ * 由 ResultHandler 流式处理的查询只记录耗时，不记录行数。
+ *
+ * @author xiaozhu
+ */
+@Slf4j
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class SqlStatsInterceptor implements Interceptor {
+
+    /**
+     * 每个语句最多记录的参数形状个数，超出的计入 OTHER_SHAPE
+     */
+    private static final int MAX_SHAPES = 16;
+
+    private static final String OTHER_SHAPE = "...";
+
+    private static final long EXPLAIN_INTERVAL_MILLIS = 60_000L;
+
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private static final Pattern GENERATED_PARAM = Pattern.compile("param\\d+");
+
+    private final DataSource dataSource;
+
+    private final long slowThresholdMicros;
+
+    private final boolean explainEnabled;
+
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(1, 1,
+            0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16),
+            r -> {
+                Thread thread = new Thread(r, "sql-explain");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    /**
+     * @param dataSource 执行 EXPLAIN 使用的数据源
+     * @param slowThresholdMillis 慢 SQL 阈值（毫秒）
+     * @param explainEnabled 是否对慢 SQL 自动执行 EXPLAIN
+     */
+    public SqlStatsInterceptor(DataSource dataSource, long slowThresholdMillis, boolean explainEnabled) {
+        this.dataSource = dataSource;
+        this.slowThresholdMicros = TimeUnit.MILLISECONDS.toMicros(slowThresholdMillis);
+        this.explainEnabled = explainEnabled;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        Object parameter = args[1];
+        StatementStats stats = statements.computeIfAbsent(ms.getId(), StatementStats::new);
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            stats.errors.increment();
+            throw e;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+        stats.latency.record(micros);
+        if (result instanceof Collection<?> rows) {
+            stats.rows.add(rows.size());
+        } else if (result instanceof Integer affected) {
+            stats.rows.add(affected);
+        }
+        stats.recordShape(shapeOf(parameter));
+
+        if (explainEnabled && micros >= slowThresholdMicros && ms.getSqlCommandType() != SqlCommandType.INSERT
+                && stats.shouldExplain(micros)) {
+            BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(parameter);
+            explainExecutor.execute(() -> explain(stats, ms, parameter, boundSql, micros));
+        }
+        return result;
+    }
+
+    /**
+     * 所有语句的统计，按 p99 降序
+     */
+    public List<SqlStatsVO> statistics() {
+        List<SqlStatsVO> result = new ArrayList<>(statements.size());
+        for (StatementStats stats : statements.values()) {
+            result.add(stats.toVO());
+        }
+        result.sort(Comparator.comparing(SqlStatsVO::getP99Ms).reversed());
+        return result;
+    }
+
+    /**
+     * 最慢的执行计划，按耗时降序
+     *
+     * @param limit 最多返回的个数
+     */
+    public List<SqlPlanVO> worstPlans(int limit) {
+        return statements.values().stream()
+                .map(stats -> stats.worstPlan)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(SqlPlanVO::getElapsedMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * 清空统计
+     */
+    public void reset() {
+        statements.clear();
+    }
+
+    // ==================== EXPLAIN ====================
+
+    private void explain(StatementStats stats, MappedStatement ms, Object parameter, BoundSql boundSql, long micros) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+            ms.getConfiguration().newParameterHandler(ms, parameter, boundSql).setParameters(ps);
+            List<Map<String, Object>> plan = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                while (rs.next()) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                        row.put(meta.getColumnLabel(i), rs.getObject(i));
+                    }
+                    plan.add(row);
+                }
+            }
+            SqlPlanVO vo = new SqlPlanVO();
+            vo.setStatementId(ms.getId());
+            vo.setSql(truncate(boundSql.getSql().replaceAll("\\s+", " ").trim()));
+            vo.setElapsedMs(micros / 1000.0);
+            vo.setCapturedAt(new Date());
+            vo.setPlan(plan);
+            stats.offerPlan(vo);
+            log.warn("慢SQL: {} cost={}ms, plan={}", ms.getId(), vo.getElapsedMs(), plan);
+        } catch (Exception e) {
+            log.warn("慢SQL执行计划获取失败: {}", ms.getId(), e);
+        }
+    }
+
+    // ==================== 参数形状 ====================
+
+    /**
+     * 参数形状：Mapper 多参数时为 {参数名:类型,...}，集合/数组记录大小的量级，如 ids:List[≤8]
+     */
+    static String shapeOf(Object parameter) {
+        if (parameter instanceof Map<?, ?> map) {
+            // MyBatis 会为每个参数额外生成 param1、param2... 的别名，去掉重复的部分
+            Map<String, String> fields = new TreeMap<>();
+            map.forEach((key, value) -> {
+                String name = String.valueOf(key);
+                if (!GENERATED_PARAM.matcher(name).matches()) {
+                    fields.put(name, shapeOfValue(value));
+                }
+            });
+            StringJoiner joiner = new StringJoiner(",", "{", "}");
+            fields.forEach((name, shape) -> joiner.add(name + ":" + shape));
+            return joiner.toString();
+        }
+        return shapeOfValue(parameter);
+    }
+
+    private static String shapeOfValue(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Collection<?> collection) {
+            return "List[" + sizeClass(collection.size()) + "]";
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + sizeClass(Array.getLength(value)) + "]";
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    /**
+     * 集合大小的量级：0、1、2 精确记录，更大的向上取到 2 的幂
+     */
+    private static String sizeClass(int size) {
+        if (size <= 2) {
+            return String.valueOf(size);
+        }
+        return "≤" + Integer.highestOneBit(size - 1) * 2;
+    }
+
+    private static String truncate(String sql) {
+        return sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+
+    /**
+     * 单个语句的统计
+     */
+    private static final class StatementStats {
+
+        final String statementId;
+
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        final LongAdder rows = new LongAdder();
+
+        final LongAdder errors = new LongAdder();
+
+        final Map<String, LongAdder> shapes = new ConcurrentHashMap<>();
+
+        final AtomicLong lastExplainAt = new AtomicLong();
+
+        volatile SqlPlanVO worstPlan;
+
+        StatementStats(String statementId) {
+            this.statementId = statementId;
+        }
+
+        void recordShape(String shape) {
+            LongAdder counter = shapes.get(shape);
+            if (counter == null) {
+                counter = shapes.size() < MAX_SHAPES
+                        ? shapes.computeIfAbsent(shape, k -> new LongAdder())
+                        : shapes.computeIfAbsent(OTHER_SHAPE, k -> new LongAdder());
+            }
+            counter.increment();
+        }
+
+        /**
+         * 比已保存的执行计划更慢，且距上次 EXPLAIN 超过间隔时才执行
+         */
+        boolean shouldExplain(long micros) {
+            SqlPlanVO plan = worstPlan;
+            if (plan != null && micros <= plan.getElapsedMs() * 1000) {
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            long last = lastExplainAt.get();
+            return now - last >= EXPLAIN_INTERVAL_MILLIS && lastExplainAt.compareAndSet(last, now);
+        }
+
+        synchronized void offerPlan(SqlPlanVO plan) {
+            if (worstPlan == null || plan.getElapsedMs() > worstPlan.getElapsedMs()) {
+                worstPlan = plan;
+            }
+        }
+
+        SqlStatsVO toVO() {
+            SqlStatsVO vo = new SqlStatsVO();
+            vo.setStatementId(statementId);
+            vo.setCount(latency.getCount());
+            vo.setErrors(errors.sum());
+            vo.setRows(rows.sum());
+            vo.setMeanMs(latency.getMean() / 1000.0);
+            vo.setP50Ms(latency.percentile(50) / 1000.0);
+            vo.setP99Ms(latency.percentile(99) / 1000.0);
+            vo.setP999Ms(latency.percentile(99.9) / 1000.0);
+            vo.setMaxMs(latency.getMax() / 1000.0);
+            Map<String, Long> shapeCounts = new TreeMap<>();
+            shapes.forEach((shape, counter) -> shapeCounts.put(shape, counter.sum()));
+            vo.setShapes(shapeCounts);
+            return vo;
+        }
+    }
+}
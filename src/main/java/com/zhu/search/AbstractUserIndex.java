@@ -0,0 +1,166 @@
+package com.zhu.search;
+
+import com.zhu.domain.entity.User;
+import com.zhu.mapper.UserMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 基于 sys_user 的进程内索引基类
+ *
+ * 1. 应用启动完成后在后台线程中流式读取全部未删除用户，分批加入索引
+ * 2. 用户变更后由 {@link UserIndexUpdater} 在后台线程中按ID重新查询（所有索引共用一次查询），
+ *    替换索引中的条目（查不到的视为已删除）
+ * 3. 构建期间发生变更的用户在构建完成后再刷新一次，避免被构建时读到的旧数据覆盖
+ *
+ * 子类只需实现 add / remove，调用时已持有写锁；查询时自行获取读锁。
+ *
+ * @author xiaozhu
+ */
+@Slf4j
+public abstract class AbstractUserIndex {
+
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    static final int REFRESH_BATCH_SIZE = 500;
+
+    @Autowired
+    protected UserMapper userMapper;
+
+    protected final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Set<Long> changedDuringBuild = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean building;
+
+    private volatile boolean ready;
+
+    /**
+     * 是否启用
+     */
+    protected abstract boolean isEnabled();
+
+    /**
+     * 加入一个用户（已持有写锁）
+     */
+    protected abstract void add(User user);
+
+    /**
+     * 移除一个用户，不存在时忽略（已持有写锁）
+     */
+    protected abstract void remove(Long userId);
+
+    /**
+     * 索引中的条目数
+     */
+    public abstract int size();
+
+    /**
+     * 应用启动完成后在后台构建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAsync() {
+        if (!isEnabled()) {
+            return;
+        }
+        Thread thread = new Thread(this::build, getClass().getSimpleName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 用户变更后按ID增量更新索引
+     *
+     * @param ids 变更的用户ID
+     * @param users 按这些ID重新查询到的用户（只包含未删除的），不在其中的ID视为已删除
+     */
+    public void onUsersChanged(Collection<Long> ids, List<User> users) {
+        if (!isEnabled() || ids.isEmpty()) {
+            return;
+        }
+        if (building) {
+            changedDuringBuild.addAll(ids);
+        }
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::remove);
+            users.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 索引是否已构建完成，未完成时调用方应查询数据库
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    protected void build() {
+        long start = System.currentTimeMillis();
+        building = true;
+        try {
+            List<User> batch = new ArrayList<>(BUILD_BATCH_SIZE);
+            userMapper.streamUsersByCondition(null, null, null, null, null, null, null, null, null, context -> {
+                batch.add(context.getResultObject());
+                if (batch.size() >= BUILD_BATCH_SIZE) {
+                    addAll(batch);
+                    batch.clear();
+                }
+            });
+            addAll(batch);
+        } catch (Exception e) {
+            log.error("{} 构建失败，继续使用数据库查询", getClass().getSimpleName(), e);
+            return;
+        } finally {
+            building = false;
+        }
+        if (!changedDuringBuild.isEmpty()) {
+            List<Long> changed = new ArrayList<>(changedDuringBuild);
+            changedDuringBuild.removeAll(changed);
+            refresh(changed);
+        }
+        ready = true;
+        log.info("{} 构建完成: size={}, cost={}ms", getClass().getSimpleName(), size(), System.currentTimeMillis() - start);
+    }
+
+    private void addAll(List<User> users) {
+        lock.writeLock().lock();
+        try {
+            for (User user : users) {
+                if (user.getId() != null) {
+                    remove(user.getId());
+                    add(user);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void refresh(Collection<Long> ids) {
+        List<Long> idList = new ArrayList<>(ids);
+        for (int from = 0; from < idList.size(); from += REFRESH_BATCH_SIZE) {
+            List<Long> chunk = idList.subList(from, Math.min(from + REFRESH_BATCH_SIZE, idList.size()));
+            // 只能查到未删除的用户，查不到的即已删除
+            List<User> users = userMapper.selectUsersByIds(chunk);
+            lock.writeLock().lock();
+            try {
+                chunk.forEach(this::remove);
+                users.forEach(this::add);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
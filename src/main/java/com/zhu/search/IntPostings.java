@@ -0,0 +1,65 @@
+package com.zhu.search;
+
+import java.util.Arrays;
+
+/**
+ * 倒排列表：有序、去重的 int 数组（内部文档号）
+ *
+ * 新文档号通常大于已有的文档号，直接追加到末尾；复用已删除的文档号时二分查找插入位置。删除需要移动后面的元素。
+ * 不是线程安全的，由索引的读写锁保护。
+ *
+ * @author xiaozhu
+ */
+final class IntPostings {
+
+    private int[] docs = new int[4];
+
+    private int size;
+
+    void add(int doc) {
+        if (size > 0 && docs[size - 1] >= doc) {
+            int index = Arrays.binarySearch(docs, 0, size, doc);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            ensureCapacity();
+            System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+            docs[insertAt] = doc;
+            size++;
+            return;
+        }
+        ensureCapacity();
+        docs[size++] = doc;
+    }
+
+    void remove(int doc) {
+        int index = Arrays.binarySearch(docs, 0, size, doc);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+        size--;
+        if (size > 16 && size < docs.length / 4) {
+            docs = Arrays.copyOf(docs, docs.length / 2);
+        }
+    }
+
+    boolean contains(int doc) {
+        return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return docs[index];
+    }
+
+    private void ensureCapacity() {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+        }
+    }
+}
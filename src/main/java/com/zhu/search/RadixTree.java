@@ -0,0 +1,345 @@
+package com.zhu.search;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 压缩前缀树（Radix Tree），用于按前缀取最近的 top-k 条目
+ *
+ * 1. 公共前缀只存一份，单链路径压缩为一条边，边上的标签直接存 char[]
+ * 2. 每个节点的子节点按首字符有序存放在 char[] / Node[] 两个数组中，二分查找；
+ *    以该节点结尾的条目（ID、时间）存放在 long[] 中，不装箱
+ * 3. 每个节点记录子树内的最大时间，取 top-k 时按最大时间做最优优先遍历，只展开可能进入结果的子树
+ *
+ * 同一个词可以对应多个ID，同一个ID也可以挂在多个词下，取结果时按ID去重。
+ * 非线程安全，由调用方加锁。
+ *
+ * @author xiaozhu
+ */
+class RadixTree {
+
+    private static final char[] EMPTY_CHARS = new char[0];
+
+    private static final long[] EMPTY_LONGS = new long[0];
+
+    private static final Node[] EMPTY_NODES = new Node[0];
+
+    private final Node root = new Node(EMPTY_CHARS);
+
+    /**
+     * 条目总数
+     */
+    private int size;
+
+    /**
+     * 添加一个条目
+     *
+     * @param term 词，空串忽略
+     * @param id 条目ID
+     * @param time 用于排序的时间，越大越靠前
+     */
+    void insert(String term, long id, long time) {
+        if (term == null || term.isEmpty()) {
+            return;
+        }
+        insert(root, term, 0, id, time);
+        size++;
+    }
+
+    /**
+     * 删除一个条目
+     *
+     * @return 条目存在并被删除时返回 true
+     */
+    boolean remove(String term, long id) {
+        if (term == null || term.isEmpty()) {
+            return false;
+        }
+        boolean removed = remove(root, term, 0, id);
+        if (removed) {
+            size--;
+        }
+        return removed;
+    }
+
+    /**
+     * 取以 prefix 开头的词下时间最大的 k 个ID（去重），同一时间时ID大的在前
+     *
+     * @param prefix 前缀
+     * @param k 最多返回的个数
+     * @return 按时间降序排列的ID
+     */
+    long[] topK(String prefix, int k) {
+        Node start = find(prefix);
+        if (start == null || k <= 0) {
+            return EMPTY_LONGS;
+        }
+        // 节点的优先级为子树最大时间，条目的优先级为自身时间；
+        // 节点的最大时间不小于子树内任一条目，所以条目出队时不会再有更大的条目
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        queue.add(new Candidate(start.max, Long.MAX_VALUE, start));
+        long[] result = new long[k];
+        int count = 0;
+        Set<Long> seen = new HashSet<>();
+        while (count < k && !queue.isEmpty()) {
+            Candidate candidate = queue.poll();
+            Node node = candidate.node;
+            if (node == null) {
+                if (seen.add(candidate.id)) {
+                    result[count++] = candidate.id;
+                }
+                continue;
+            }
+            for (int i = 0; i < node.ids.length; i++) {
+                queue.add(new Candidate(node.times[i], node.ids[i], null));
+            }
+            for (Node child : node.children) {
+                queue.add(new Candidate(child.max, Long.MAX_VALUE, child));
+            }
+        }
+        return count == k ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * 条目总数
+     */
+    int size() {
+        return size;
+    }
+
+    // ==================== 插入 ====================
+
+    private static void insert(Node node, String term, int pos, long id, long time) {
+        node.max = Math.max(node.max, time);
+        if (pos == term.length()) {
+            node.addEntry(id, time);
+            return;
+        }
+        int index = node.indexOf(term.charAt(pos));
+        if (index < 0) {
+            Node leaf = new Node(term.substring(pos).toCharArray());
+            leaf.addEntry(id, time);
+            leaf.max = time;
+            node.addChild(-index - 1, leaf);
+            return;
+        }
+        Node child = node.children[index];
+        int common = commonPrefix(child.label, term, pos);
+        if (common < child.label.length) {
+            // 在公共前缀处拆分边：node -> mid -> child
+            Node mid = new Node(Arrays.copyOf(child.label, common));
+            child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+            mid.keys = new char[]{child.label[0]};
+            mid.children = new Node[]{child};
+            mid.max = child.max;
+            node.children[index] = mid;
+            child = mid;
+        }
+        insert(child, term, pos + common, id, time);
+    }
+
+    // ==================== 删除 ====================
+
+    private static boolean remove(Node node, String term, int pos, long id) {
+        boolean removed;
+        if (pos == term.length()) {
+            removed = node.removeEntry(id);
+        } else {
+            int index = node.indexOf(term.charAt(pos));
+            if (index < 0) {
+                return false;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, term, pos);
+            if (common < child.label.length) {
+                return false;
+            }
+            removed = remove(child, term, pos + common, id);
+            if (removed) {
+                compact(node, index);
+            }
+        }
+        if (removed) {
+            node.recomputeMax();
+        }
+        return removed;
+    }
+
+    /**
+     * 删除后整理子节点：没有条目也没有子节点的删掉，没有条目且只有一个子节点的与其合并
+     */
+    private static void compact(Node parent, int index) {
+        Node child = parent.children[index];
+        if (child.ids.length > 0) {
+            return;
+        }
+        if (child.children.length == 0) {
+            parent.removeChild(index);
+        } else if (child.children.length == 1) {
+            Node grandchild = child.children[0];
+            char[] label = Arrays.copyOf(child.label, child.label.length + grandchild.label.length);
+            System.arraycopy(grandchild.label, 0, label, child.label.length, grandchild.label.length);
+            grandchild.label = label;
+            parent.children[index] = grandchild;
+        }
+    }
+
+    // ==================== 查找 ====================
+
+    /**
+     * 找到包含所有以 prefix 开头的词的最小子树，不存在时返回 null
+     */
+    private Node find(String prefix) {
+        Node node = root;
+        int pos = 0;
+        while (pos < prefix.length()) {
+            int index = node.indexOf(prefix.charAt(pos));
+            if (index < 0) {
+                return null;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, prefix, pos);
+            if (pos + common == prefix.length()) {
+                // 前缀在这条边中间或末尾结束，整棵子树都匹配
+                return child;
+            }
+            if (common < child.label.length) {
+                return null;
+            }
+            node = child;
+            pos += common;
+        }
+        return node;
+    }
+
+    private static int commonPrefix(char[] label, String term, int pos) {
+        int max = Math.min(label.length, term.length() - pos);
+        int i = 0;
+        while (i < max && label[i] == term.charAt(pos + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 树节点，数组都按实际长度分配，不预留空间
+     */
+    private static final class Node {
+
+        /**
+         * 从父节点到本节点的边上的字符
+         */
+        char[] label;
+
+        /**
+         * 子节点边的首字符，有序
+         */
+        char[] keys = EMPTY_CHARS;
+
+        Node[] children = EMPTY_NODES;
+
+        /**
+         * 以本节点结尾的条目
+         */
+        long[] ids = EMPTY_LONGS;
+
+        long[] times = EMPTY_LONGS;
+
+        /**
+         * 子树（含本节点）内条目的最大时间
+         */
+        long max = Long.MIN_VALUE;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        int indexOf(char c) {
+            return Arrays.binarySearch(keys, c);
+        }
+
+        void addChild(int index, Node child) {
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newKeys[index] = child.label[0];
+            newChildren[index] = child;
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        void removeChild(int index) {
+            if (children.length == 1) {
+                keys = EMPTY_CHARS;
+                children = EMPTY_NODES;
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        void addEntry(long id, long time) {
+            ids = Arrays.copyOf(ids, ids.length + 1);
+            times = Arrays.copyOf(times, times.length + 1);
+            ids[ids.length - 1] = id;
+            times[times.length - 1] = time;
+        }
+
+        boolean removeEntry(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    if (ids.length == 1) {
+                        ids = EMPTY_LONGS;
+                        times = EMPTY_LONGS;
+                        return true;
+                    }
+                    long[] newIds = new long[ids.length - 1];
+                    long[] newTimes = new long[times.length - 1];
+                    System.arraycopy(ids, 0, newIds, 0, i);
+                    System.arraycopy(times, 0, newTimes, 0, i);
+                    System.arraycopy(ids, i + 1, newIds, i, ids.length - i - 1);
+                    System.arraycopy(times, i + 1, newTimes, i, times.length - i - 1);
+                    ids = newIds;
+                    times = newTimes;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void recomputeMax() {
+            long value = Long.MIN_VALUE;
+            for (long time : times) {
+                value = Math.max(value, time);
+            }
+            for (Node child : children) {
+                value = Math.max(value, child.max);
+            }
+            max = value;
+        }
+    }
+
+    /**
+     * 遍历时的候选项：子树（node 不为空）或单个条目
+     */
+    private record Candidate(long time, long id, Node node) implements Comparable<Candidate> {
+
+        @Override
+        public int compareTo(Candidate other) {
+            // 时间大的在前；同一时间时子树先于条目展开，保证同时间的条目按ID排序
+            int result = Long.compare(other.time, time);
+            return result != 0 ? result : Long.compare(other.id, id);
+        }
+    }
+}
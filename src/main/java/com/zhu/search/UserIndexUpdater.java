@@ -0,0 +1,142 @@
+package com.zhu.search;
+
+import com.zhu.domain.entity.User;
+import com.zhu.event.UserChangedEvent;
+import com.zhu.mapper.UserMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户索引的增量更新
+ *
+ * 1. 监听 UserChangedEvent，只记录变更的用户ID，不在执行写操作的请求线程中查询数据库；
+ *    其他节点的变更由 UserCache 收到失效广播后转发为同样的事件
+ * 2. 后台线程取出累积的全部ID，按ID重新查询一次，结果交给所有索引（搜索索引、联想索引）共用
+ * 3. 查询失败时ID放回，随下一次变更重试
+ * 4. 定时按 update_time / create_time 查询最近变更的用户ID并同样更新，兜底丢失的广播（Redis 不可用、订阅断开等）
+ *
+ * @author xiaozhu
+ */
+@Slf4j
+@Component
+public class UserIndexUpdater {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private List<AbstractUserIndex> indexes;
+
+    @Value("${search.user.resync-overlap:5000}")
+    private long resyncOverlapMs;
+
+    /**
+     * 上一次增量对账的时间，下一次对账查询此后变更的用户
+     */
+    private volatile long lastResyncMillis = System.currentTimeMillis();
+
+    /**
+     * 等待更新的用户ID
+     */
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 更新线程：同一时刻只有一个任务在执行，最多再排队一个，多余的直接丢弃
+     * （排队的任务开始时会取出全部等待的ID，足以覆盖被丢弃的任务）
+     */
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1,
+            0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+            r -> {
+                Thread thread = new Thread(r, "user-index-updater");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 用户变更后记录ID，由后台线程更新索引
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.ids().isEmpty() || indexes.stream().noneMatch(AbstractUserIndex::isEnabled)) {
+            return;
+        }
+        pending.addAll(event.ids());
+        executor.execute(this::update);
+    }
+
+    /**
+     * 定时增量对账：最近变更（包括删除）的用户ID交给后台线程更新
+     * 窗口向前多取 resync-overlap，重复更新同一个用户没有副作用
+     */
+    @Scheduled(fixedDelayString = "${search.user.resync-interval:60000}",
+            initialDelayString = "${search.user.resync-interval:60000}")
+    public void resync() {
+        if (indexes.stream().noneMatch(AbstractUserIndex::isEnabled)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<Long> ids;
+        try {
+            ids = userMapper.selectIdsChangedSince(new Date(lastResyncMillis - resyncOverlapMs));
+        } catch (Exception e) {
+            log.warn("用户索引增量对账失败，下次重试", e);
+            return;
+        }
+        lastResyncMillis = now;
+        if (!ids.isEmpty()) {
+            pending.addAll(ids);
+            executor.execute(this::update);
+        }
+    }
+
+    /**
+     * 取出全部等待的ID，分批查询并更新所有索引
+     */
+    void update() {
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Long> it = pending.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        for (int from = 0; from < ids.size(); from += AbstractUserIndex.REFRESH_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + AbstractUserIndex.REFRESH_BATCH_SIZE, ids.size()));
+            List<User> users;
+            try {
+                // 只能查到未删除的用户，查不到的即已删除
+                users = userMapper.selectUsersByIds(chunk);
+            } catch (Exception e) {
+                pending.addAll(ids.subList(from, ids.size()));
+                log.warn("用户索引增量更新失败，等待下次变更时重试: ids={}", ids.size() - from, e);
+                return;
+            }
+            for (AbstractUserIndex index : indexes) {
+                try {
+                    index.onUsersChanged(chunk, users);
+                } catch (Exception e) {
+                    log.warn("{} 增量更新失败: ids={}", index.getClass().getSimpleName(), chunk, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.zhu.search;
+
+import com.zhu.domain.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 用户搜索倒排索引（进程内）
+ *
+ * 1. 对用户名、昵称、邮箱、手机号做 2-gram 切分（不区分大小写），每个 2-gram 对应一个有序的文档号列表
+ * 2. 搜索时取关键词所有 2-gram 的倒排列表求交集，再对候选文档做子串校验，结果与 LIKE '%kw%' 一致；
+ *    单字关键词没有 2-gram，直接扫描内存中的文档
+ * 3. 按命中字段和匹配方式打分排序（用户名 > 昵称 > 邮箱 > 手机号，完全匹配 > 前缀 > 包含），同分时新用户在前
+ * 4. 构建与增量更新见 {@link AbstractUserIndex}，构建完成前返回 null，由调用方查询数据库
+ *
+ * 索引中只有未删除的用户，返回的是用户ID，由调用方按ID查询完整数据。
+ *
+ * @author xiaozhu
+ */
+@Component
+public class UserSearchIndex extends AbstractUserIndex {
+
+    private static final int[] FIELD_WEIGHTS = {8, 6, 4, 2};
+
+    @Value("${search.user.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 2-gram -> 文档号列表，2-gram 编码为 (c1 << 16) | c2
+     */
+    private final Map<Integer, IntPostings> postings = new HashMap<>();
+
+    /**
+     * 文档号 -> 文档，删除后留空，空位记入 freeDocIds 供新文档复用
+     */
+    private final List<Doc> docs = new ArrayList<>();
+
+    /**
+     * 已删除、可复用的文档号。每次更新都是先删后加，复用空位后 docs 的长度不超过历史最大用户数
+     */
+    private final ArrayDeque<Integer> freeDocIds = new ArrayDeque<>();
+
+    /**
+     * 用户ID -> 文档号
+     */
+    private final Map<Long, Integer> docIds = new HashMap<>();
+
+    @Override
+    protected boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 搜索用户
+     *
+     * @param keyword 关键词
+     * @param limit 最多返回的个数
+     * @return 按相关度排序的用户ID，索引尚未就绪时返回 null
+     */
+    public List<Long> search(String keyword, int limit) {
+        if (!isReady()) {
+            return null;
+        }
+        String kw = keyword.toLowerCase(Locale.ROOT);
+        PriorityQueue<long[]> top = new PriorityQueue<>(Math.min(limit, 1024) + 1,
+                (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        lock.readLock().lock();
+        try {
+            if (kw.length() < 2) {
+                for (Doc doc : docs) {
+                    if (doc != null) {
+                        collect(top, doc, kw, limit);
+                    }
+                }
+            } else {
+                IntPostings[] lists = postingsOf(kw);
+                if (lists != null) {
+                    intersect(lists, top, kw, limit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ids = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ids.add(top.poll()[1]);
+        }
+        // 小顶堆依次弹出的是从低到高，反转为从高到低
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== 增量维护 ====================
+
+    @Override
+    protected void add(User user) {
+        Doc doc = new Doc(user.getId(), lower(user.getUserName()), lower(user.getNickName()),
+                lower(user.getEmail()), lower(user.getPhonenumber()));
+        Integer free = freeDocIds.poll();
+        int docId;
+        if (free != null) {
+            docId = free;
+            docs.set(docId, doc);
+        } else {
+            docId = docs.size();
+            docs.add(doc);
+        }
+        docIds.put(doc.userId, docId);
+        for (int gram : doc.grams()) {
+            postings.computeIfAbsent(gram, k -> new IntPostings()).add(docId);
+        }
+    }
+
+    @Override
+    protected void remove(Long userId) {
+        Integer docId = docIds.remove(userId);
+        if (docId == null) {
+            return;
+        }
+        Doc doc = docs.set(docId, null);
+        freeDocIds.push(docId);
+        for (int gram : doc.grams()) {
+            IntPostings list = postings.get(gram);
+            if (list != null) {
+                list.remove(docId);
+                if (list.size() == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 关键词的所有 2-gram 对应的倒排列表，按长度升序；任一 2-gram 不存在时返回 null
+     */
+    private IntPostings[] postingsOf(String kw) {
+        IntPostings[] lists = new IntPostings[kw.length() - 1];
+        for (int i = 0; i < lists.length; i++) {
+            IntPostings list = postings.get(gram(kw.charAt(i), kw.charAt(i + 1)));
+            if (list == null) {
+                return null;
+            }
+            lists[i] = list;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+        return lists;
+    }
+
+    /**
+     * 以最短的列表为驱动，逐个检查是否出现在其他列表中
+     */
+    private void intersect(IntPostings[] lists, PriorityQueue<long[]> top, String kw, int limit) {
+        IntPostings driver = lists[0];
+        outer:
+        for (int i = driver.size() - 1; i >= 0; i--) {
+            int docId = driver.get(i);
+            for (int j = 1; j < lists.length; j++) {
+                if (!lists[j].contains(docId)) {
+                    continue outer;
+                }
+            }
+            collect(top, docs.get(docId), kw, limit);
+        }
+    }
+
+    private void collect(PriorityQueue<long[]> top, Doc doc, String kw, int limit) {
+        int score = doc.score(kw);
+        if (score == 0) {
+            return;
+        }
+        if (top.size() < limit) {
+            top.add(new long[]{score, doc.userId});
+            return;
+        }
+        long[] min = top.peek();
+        if (score > min[0] || (score == min[0] && doc.userId > min[1])) {
+            top.poll();
+            top.add(new long[]{score, doc.userId});
+        }
+    }
+
+    private static int gram(char c1, char c2) {
+        return (c1 << 16) | c2;
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 索引中的文档（已转小写的四个字段）
+     */
+    private record Doc(long userId, String userName, String nickName, String email, String phonenumber) {
+
+        String[] fields() {
+            return new String[]{userName, nickName, email, phonenumber};
+        }
+
+        Set<Integer> grams() {
+            Set<Integer> grams = new HashSet<>();
+            for (String field : fields()) {
+                for (int i = 0; i + 1 < field.length(); i++) {
+                    grams.add(gram(field.charAt(i), field.charAt(i + 1)));
+                }
+            }
+            return grams;
+        }
+
+        /**
+         * 相关度得分，不包含关键词时为 0
+         */
+        int score(String kw) {
+            String[] fields = fields();
+            int score = 0;
+            for (int i = 0; i < fields.length; i++) {
+                String field = fields[i];
+                if (field.equals(kw)) {
+                    score += FIELD_WEIGHTS[i] * 3;
+                } else if (field.startsWith(kw)) {
+                    score += FIELD_WEIGHTS[i] * 2;
+                } else if (field.contains(kw)) {
+                    score += FIELD_WEIGHTS[i];
+                }
+            }
+            return score;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.zhu.search;
+
+import com.zhu.domain.entity.User;
+import com.zhu.domain.vo.uservo.UserSuggestVO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 用户名联想索引（进程内）
+ *
+ * 1. 用户名和昵称（不区分大小写）放入同一棵压缩前缀树，按前缀取创建时间最近的 top-k 个用户
+ * 2. 同时保存每个用户的用户名、昵称，联想结果直接由内存返回，不再查询数据库
+ * 3. 构建与增量更新见 {@link AbstractUserIndex}，构建完成前返回 null，由调用方查询数据库
+ *
+ * @author xiaozhu
+ */
+@Component
+public class UserSuggestIndex extends AbstractUserIndex {
+
+    @Value("${search.user.suggest-enabled:true}")
+    private boolean enabled;
+
+    private final RadixTree tree = new RadixTree();
+
+    /**
+     * 用户ID -> 联想结果（同时用于删除时找到原来的词）
+     */
+    private final Map<Long, UserSuggestVO> users = new HashMap<>();
+
+    @Override
+    protected boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 按前缀联想用户
+     *
+     * @param prefix 前缀
+     * @param limit 最多返回的个数
+     * @return 按创建时间降序排列的用户，索引尚未就绪时返回 null
+     */
+    public List<UserSuggestVO> suggest(String prefix, int limit) {
+        if (!isReady()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            long[] ids = tree.topK(prefix.toLowerCase(Locale.ROOT), limit);
+            List<UserSuggestVO> result = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                result.add(users.get(id));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return users.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== 增量维护 ====================
+
+    @Override
+    protected void add(User user) {
+        long time = user.getCreateTime() == null ? 0L : user.getCreateTime().getTime();
+        String userName = lower(user.getUserName());
+        String nickName = lower(user.getNickName());
+        tree.insert(userName, user.getId(), time);
+        if (!nickName.equals(userName)) {
+            tree.insert(nickName, user.getId(), time);
+        }
+        users.put(user.getId(), new UserSuggestVO(user.getId(), user.getUserName(), user.getNickName()));
+    }
+
+    @Override
+    protected void remove(Long userId) {
+        UserSuggestVO old = users.remove(userId);
+        if (old == null) {
+            return;
+        }
+        tree.remove(lower(old.getUserName()), userId);
+        tree.remove(lower(old.getNickName()), userId);
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,6 +1,9 @@
 package com.zhu.security.config;
 
 
+import com.zhu.security.filter.JwtAuthenticationTokenFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,6 +27,9 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityConfig {
 
+    @Autowired
+    private JwtAuthenticationTokenFilter jwtAuthenticationTokenFilter;
+
     /**
      * 配置 SecurityFilterChain（Spring Security 6 新写法）
      */
@@ -43,6 +49,8 @@ public class SecurityConfig {
                         // 除上面外的所有请求全部不需要认证即可访问
                         .anyRequest().permitAll()
                 )
+                // 把 JWT 认证过滤器添加到 UsernamePasswordAuthenticationFilter 之前
+                .addFilterBefore(jwtAuthenticationTokenFilter, UsernamePasswordAuthenticationFilter.class)
                 // 关闭默认的注销功能，因为我们自己写了退出方法
                 .logout(logout -> logout.disable())
                 // 允许跨域
@@ -51,6 +59,17 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * JWT 过滤器只在 Security 过滤器链中执行，不要再作为普通 Servlet 过滤器注册一次
+     */
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationTokenFilter> jwtAuthenticationTokenFilterRegistration() {
+        FilterRegistrationBean<JwtAuthenticationTokenFilter> registration =
+                new FilterRegistrationBean<>(jwtAuthenticationTokenFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     /**
      * 配置密码编码器
      */
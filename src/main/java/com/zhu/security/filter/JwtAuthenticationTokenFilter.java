@@ -0,0 +1,99 @@
+package com.zhu.security.filter;
+
+import com.alibaba.fastjson2.JSON;
+import com.zhu.common.enums.AppHttpCodeEnum;
+import com.zhu.common.result.ResponseResult;
+import com.zhu.security.token.TokenRevocationService;
+import com.zhu.security.token.VerifiedToken;
+import com.zhu.security.token.VerifiedTokenCache;
+import com.zhu.utils.WebUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * JWT 认证过滤器
+ *
+ * 1. 从请求头 token（或 Authorization: Bearer xxx）中获取 JWT，没有 token 的请求直接放行，由授权规则决定能否访问
+ * 2. 先查已验签 token 缓存，未命中才做 HMAC 验签和解析
+ * 3. 通过布隆过滤器 + Redis 检查 token 是否已吊销
+ * 4. 校验通过后把用户标识（JWT subject）放入 SecurityContext
+ *
+ * @author xiaozhu
+ */
+@Slf4j
+@Component
+public class JwtAuthenticationTokenFilter extends OncePerRequestFilter {
+
+    private static final String TOKEN_HEADER = "token";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = resolveToken(request);
+        if (!StringUtils.hasText(token)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        VerifiedToken verified;
+        try {
+            verified = verifiedTokenCache.verify(token);
+        } catch (Exception e) {
+            // token 超时或者非法
+            log.debug("token 校验失败: {}", e.getMessage());
+            renderNeedLogin(response, "token非法或已过期");
+            return;
+        }
+        if (tokenRevocationService.isRevoked(verified.tokenId())) {
+            renderNeedLogin(response, "token已失效");
+            return;
+        }
+
+        // 存入 SecurityContextHolder
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(verified.subject(), null, AuthorityUtils.NO_AUTHORITIES);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * 从请求头中获取 token，没有时返回 null
+     */
+    public static String resolveToken(HttpServletRequest request) {
+        String token = request.getHeader(TOKEN_HEADER);
+        if (StringUtils.hasText(token)) {
+            return token;
+        }
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            return authorization.substring(BEARER_PREFIX.length());
+        }
+        return null;
+    }
+
+    private void renderNeedLogin(HttpServletResponse response, String msg) {
+        ResponseResult result = ResponseResult.errorResult(AppHttpCodeEnum.NEED_LOGIN, msg);
+        WebUtils.renderString(response, JSON.toJSONString(result));
+    }
+}
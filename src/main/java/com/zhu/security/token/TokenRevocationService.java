@@ -0,0 +1,130 @@
+package com.zhu.security.token;
+
+import com.zhu.common.constants.CacheConstants;
+import com.zhu.utils.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * token 吊销服务
+ *
+ * 1. 已吊销的 JWT ID 保存在 Redis ZSET 中（分数为 token 过期时间，过期后定时清理）
+ * 2. 本地布隆过滤器挡在 Redis 前面：绝大多数 token 没有被吊销，布隆过滤器判定不存在即可直接放行，
+ *    只有判定可能存在时才查询 Redis 确认
+ * 3. 吊销时通过 Redis 频道广播，各节点把 JWT ID 加入本地布隆过滤器；定时从 Redis 重建，
+ *    清除已过期的条目并补上错过的广播
+ * 4. 退出登录（POST /logout，见 LogoutController）时吊销当前 token
+ *
+ * @author xiaozhu
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${jwt.revocation.expected-size:100000}")
+    private long expectedSize;
+
+    @Value("${jwt.revocation.fpp:0.001}")
+    private double fpp;
+
+    /**
+     * 当前使用的布隆过滤器
+     */
+    private volatile BloomFilter filter;
+
+    /**
+     * 重建过程中的新过滤器，重建期间收到的吊销同时写入新旧两个过滤器
+     */
+    private volatile BloomFilter building;
+
+    @PostConstruct
+    public void init() {
+        filter = new BloomFilter(expectedSize, fpp);
+        rebuild();
+        listenerContainer.addMessageListener(
+                (message, pattern) -> addLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CacheConstants.TOKEN_REVOKED_CHANNEL));
+    }
+
+    /**
+     * 吊销 token
+     *
+     * @param tokenId JWT ID
+     * @param expiresAt token 过期时间（毫秒时间戳），过期后吊销记录会被清理
+     */
+    public void revoke(String tokenId, long expiresAt) {
+        if (tokenId == null) {
+            return;
+        }
+        addLocal(tokenId);
+        stringRedisTemplate.opsForZSet().add(CacheConstants.TOKEN_REVOKED_KEY, tokenId, expiresAt);
+        stringRedisTemplate.convertAndSend(CacheConstants.TOKEN_REVOKED_CHANNEL, tokenId);
+    }
+
+    /**
+     * 判断 token 是否已被吊销
+     *
+     * @param tokenId JWT ID
+     * @return 是否已吊销
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        try {
+            return stringRedisTemplate.opsForZSet().score(CacheConstants.TOKEN_REVOKED_KEY, tokenId) != null;
+        } catch (Exception e) {
+            // 布隆过滤器判定可能已吊销且无法确认时，按已吊销处理
+            log.warn("查询 token 吊销状态失败: tokenId={}", tokenId, e);
+            return true;
+        }
+    }
+
+    /**
+     * 定时清理已过期的吊销记录并重建本地布隆过滤器
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:600000}",
+            initialDelayString = "${jwt.revocation.rebuild-interval:600000}")
+    public void rebuild() {
+        BloomFilter next = new BloomFilter(expectedSize, fpp);
+        building = next;
+        try {
+            stringRedisTemplate.opsForZSet().removeRangeByScore(CacheConstants.TOKEN_REVOKED_KEY,
+                    Double.NEGATIVE_INFINITY, System.currentTimeMillis());
+            Set<String> revoked = stringRedisTemplate.opsForZSet().range(CacheConstants.TOKEN_REVOKED_KEY, 0, -1);
+            if (revoked != null) {
+                revoked.forEach(next::put);
+            }
+            filter = next;
+            log.debug("token 吊销过滤器已重建: size={}", revoked == null ? 0 : revoked.size());
+        } catch (Exception e) {
+            log.warn("重建 token 吊销过滤器失败，继续使用旧过滤器", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    private void addLocal(String tokenId) {
+        filter.put(tokenId);
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(tokenId);
+        }
+    }
+}
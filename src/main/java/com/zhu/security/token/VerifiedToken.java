@@ -0,0 +1,12 @@
+package com.zhu.security.token;
+
+/**
+ * 已验签的 token 信息
+ *
+ * @param subject 主题（用户标识）
+ * @param tokenId JWT ID，用于吊销检查
+ * @param expiresAt 过期时间（毫秒时间戳）
+ * @author xiaozhu
+ */
+public record VerifiedToken(String subject, String tokenId, long expiresAt) {
+}
@@ -0,0 +1,115 @@
+package com.zhu.security.token;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.zhu.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验签 token 缓存
+ *
+ * 以 token 的 SHA-256 摘要为 key（不在内存中保存 token 原文），缓存验签和解析的结果，
+ * 条目在 token 过期时失效，同一个 token 的后续请求不再做 HMAC 验签和 JSON 解析。
+ *
+ * @author xiaozhu
+ */
+@Component
+public class VerifiedTokenCache {
+
+    @Value("${jwt.cache.max-size:100000}")
+    private long maxSize;
+
+    @Value("${jwt.cache.max-expire-seconds:3600}")
+    private long maxExpireSeconds;
+
+    private Cache<TokenKey, VerifiedToken> cache;
+
+    @PostConstruct
+    public void init() {
+        long maxExpireNanos = TimeUnit.SECONDS.toNanos(maxExpireSeconds);
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<TokenKey, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(TokenKey key, VerifiedToken token, long currentTime) {
+                        long remaining = TimeUnit.MILLISECONDS.toNanos(token.expiresAt() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(remaining, maxExpireNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenKey key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenKey key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 验证 token，命中缓存时直接返回，否则验签解析后放入缓存
+     *
+     * @param token JWT
+     * @return 已验签的 token 信息
+     * @throws Exception token 非法或已过期
+     */
+    public VerifiedToken verify(String token) throws Exception {
+        TokenKey key = TokenKey.of(token);
+        VerifiedToken verified = cache.getIfPresent(key);
+        if (verified != null && verified.expiresAt() > System.currentTimeMillis()) {
+            return verified;
+        }
+        Claims claims = JwtUtil.parseJWT(token);
+        Date expiration = claims.getExpiration();
+        verified = new VerifiedToken(claims.getSubject(), claims.getId(),
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+        cache.put(key, verified);
+        return verified;
+    }
+
+    /**
+     * 从缓存中移除 token
+     *
+     * @param token JWT
+     */
+    public void invalidate(String token) {
+        cache.invalidate(TokenKey.of(token));
+    }
+
+    /**
+     * 缓存的 token 个数
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * token 摘要（取 SHA-256 的前 128 位）
+     */
+    private record TokenKey(long high, long low) {
+
+        static TokenKey of(String token) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+                ByteBuffer buffer = ByteBuffer.wrap(digest);
+                return new TokenKey(buffer.getLong(), buffer.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
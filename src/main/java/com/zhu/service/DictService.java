@@ -1,5 +1,6 @@
 package com.zhu.service;
 
+import com.zhu.common.dict.DictSnapshot;
 import com.zhu.domain.entity.DictData;
 
 import java.util.List;
@@ -28,8 +29,16 @@ public interface DictService {
      */
     String getDictLabel(String dictType, String dictValue);
 
+    /**
+     * 获取字典快照（全部有效字典数据的不可变索引）
+     *
+     * @return 字典快照
+     */
+    DictSnapshot getSnapshot();
+
     /**
      * 刷新字典缓存
+     * 自增字典版本号并广播，所有节点在后台重新加载，加载完成前继续使用旧数据
      */
     void refreshCache();
 }
@@ -7,6 +7,8 @@ import com.zhu.domain.dto.userdto.UserUpdateDTO;
 import com.zhu.domain.entity.User;
 import com.zhu.common.result.ResponseResult;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Date;
 import java.util.List;
 
@@ -53,9 +55,19 @@ public interface UserService extends IService<User> {
      * 分页查询用户
      * @param pageNum 页码
      * @param pageSize 每页数量
+     * @param searchCount 是否查询总数（为空时默认查询）
      * @return ResponseResult<Page<UserVO>>
      */
-    ResponseResult getUsersByPage(Integer pageNum, Integer pageSize);
+    ResponseResult getUsersByPage(Integer pageNum, Integer pageSize, Boolean searchCount);
+
+    /**
+     * 游标分页查询用户
+     * @param cursor 上一页返回的游标，空字符串表示第一页
+     * @param pageSize 每页数量
+     * @param searchCount 是否查询总数（为空时默认不查询）
+     * @return ResponseResult<CursorPageVO<UserVO>>
+     */
+    ResponseResult getUsersByCursor(String cursor, Integer pageSize, Boolean searchCount);
 
     /**
      * 根据状态查询用户
@@ -99,6 +111,42 @@ public interface UserService extends IService<User> {
      */
     ResponseResult batchDeleteUsers(List<Long> ids);
 
+    // ==================== 流式查询（NDJSON，逐行写出） ====================
+
+    /**
+     * 流式输出所有用户
+     * @param out 输出流
+     */
+    void streamAllUsers(OutputStream out);
+
+    /**
+     * 流式输出指定状态的用户
+     * @param status 状态
+     * @param out 输出流
+     */
+    void streamUsersByStatus(String status, OutputStream out);
+
+    /**
+     * 流式输出指定类型的用户
+     * @param type 类型
+     * @param out 输出流
+     */
+    void streamUsersByType(String type, OutputStream out);
+
+    /**
+     * 流式输出多条件查询的用户
+     * @param dto 查询条件DTO
+     * @param out 输出流
+     */
+    void streamUsersByCondition(UserQueryDTO dto, OutputStream out);
+
+    /**
+     * 流式输出模糊搜索的用户
+     * @param keyword 关键词
+     * @param out 输出流
+     */
+    void streamSearchUsers(String keyword, OutputStream out);
+
     // ==================== 复杂查询（使用XML + DTO/VO） ====================
 
     /**
@@ -108,6 +156,21 @@ public interface UserService extends IService<User> {
      */
     ResponseResult searchUsersByCondition(UserQueryDTO dto);
 
+    /**
+     * 流式导出用户到 Excel
+     * @param dto 查询条件DTO
+     * @param out 输出流
+     */
+    void exportUsers(UserQueryDTO dto, OutputStream out);
+
+    /**
+     * 从 Excel/CSV 批量导入用户
+     * @param in 文件输入流
+     * @param fileName 文件名（按扩展名区分 CSV）
+     * @return ResponseResult<UserImportResultVO>
+     */
+    ResponseResult importUsers(InputStream in, String fileName);
+
     /**
      * 统计各类型用户数量
      * @return ResponseResult<List<UserTypeStatisticsVO>>
@@ -144,6 +207,14 @@ public interface UserService extends IService<User> {
      */
     ResponseResult searchUsers(String keyword);
 
+    /**
+     * 用户名联想
+     * @param prefix 用户名或昵称前缀
+     * @param limit 最多返回的个数
+     * @return ResponseResult<List<UserSuggestVO>>
+     */
+    ResponseResult suggestUsers(String prefix, Integer limit);
+
     /**
      * 查询用户及其创建者信息
      * @param status 状态
@@ -174,4 +245,25 @@ public interface UserService extends IService<User> {
      */
     ResponseResult updateUserSelective(UserUpdateDTO dto);
 
+    // ==================== 条件请求（ETag） ====================
+
+    /**
+     * 单个用户的 ETag，由缓存中的用户计算（更新时间 + 内容摘要），不查询数据库也不序列化响应
+     * @param id 用户ID
+     * @return ETag，ID为空时返回 null
+     */
+    String getUserETag(Long id);
+
+    /**
+     * 用户列表的 ETag，由用户表版本戳生成，任何用户变更后改变
+     * @return ETag，版本戳不可用（Redis 异常）时返回 null
+     */
+    String getUsersETag();
+
+    /**
+     * 统计接口的 ETag：用户表版本戳 + 统计结果的缓存时间窗口（统计本身允许短暂滞后）
+     * @return ETag，版本戳不可用（Redis 异常）时返回 null
+     */
+    String getStatisticsETag();
+
 }
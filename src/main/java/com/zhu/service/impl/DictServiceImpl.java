@@ -1,93 +1,278 @@
 package com.zhu.service.impl;
 
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.zhu.common.constants.CacheConstants;
+import com.zhu.common.dict.DictSnapshot;
 import com.zhu.domain.entity.DictData;
+import com.zhu.domain.entity.DictType;
 import com.zhu.mapper.DictDataMapper;
+import com.zhu.mapper.DictTypeMapper;
 import com.zhu.service.DictService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 字典服务实现类
- * 使用内存缓存提升性能
+ *
+ * 1. 启动时把 sys_dict_type / sys_dict_data 全部加载为不可变的字典快照，读取时不再访问数据库
+ * 2. 快照包含全部有效字典，查不到的字典值直接返回 null（相当于缓存了未命中），不会反复查库
+ * 3. 刷新时先在后台构建新快照再原子替换，替换前旧快照继续提供服务，没有缓存全空的窗口
+ * 4. 字典版本号保存在 Redis 中，刷新时自增并通过频道广播，其他节点收到后在后台重新加载；
+ *    广播丢失时由定时任务比对版本号兜底
+ * 5. 通过 Micrometer 暴露快照大小、版本号、查询命中/未命中次数和加载次数（dict.cache.*）
  *
  * @author xiaozhu
  */
 @Slf4j
 @Service
-public class DictServiceImpl implements DictService {
+public class DictServiceImpl implements DictService, MeterBinder {
 
     @Autowired
     private DictDataMapper dictDataMapper;
 
+    @Autowired
+    private DictTypeMapper dictTypeMapper;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
     /**
-     * 字典数据缓存
-     * key: dictType, value: List<DictData>
+     * 当前字典快照，未加载成功前为空快照
      */
-    private final Map<String, List<DictData>> dictCache = new ConcurrentHashMap<>();
+    private final AtomicReference<DictSnapshot> snapshot = new AtomicReference<>(DictSnapshot.EMPTY);
+
+    /**
+     * 同步补加载时的互斥锁
+     */
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    /**
+     * 快照为空时同步补加载的最小间隔（毫秒）
+     */
+    @Value("${dict.retry-interval:5000}")
+    private long retryIntervalMs = 5000;
+
+    /**
+     * 下一次允许同步补加载的时间（System.nanoTime）
+     */
+    private volatile long nextLoadNanos = System.nanoTime();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder loadFailures = new LongAdder();
 
     /**
-     * 字典标签缓存
-     * key: dictType:dictValue, value: dictLabel
+     * 后台加载线程：同一时刻只有一个加载任务在执行，最多再排队一个，多余的请求直接丢弃
+     * （排队的任务开始时会读取最新版本号，足以覆盖被丢弃的请求）
      */
-    private final Map<String, String> labelCache = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor reloadExecutor = new ThreadPoolExecutor(1, 1,
+            0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+            r -> {
+                Thread thread = new Thread(r, "dict-reload");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // 启动时数据库不可用不影响启动，首次读取或定时任务会再次尝试加载
+            log.warn("字典预加载失败，稍后重试", e);
+        }
+        listenerContainer.addMessageListener((message, pattern) -> onChanged(message),
+                new ChannelTopic(CacheConstants.DICT_CHANGED_CHANNEL));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        reloadExecutor.shutdownNow();
+    }
 
     @Override
     public List<DictData> getDictDataByType(String dictType) {
         if (dictType == null || dictType.isEmpty()) {
             return List.of();
         }
+        List<DictData> dictData = getSnapshot().getDictData(dictType);
+        (dictData.isEmpty() ? misses : hits).increment();
+        return dictData;
+    }
 
-        // 先从缓存获取
-        if (dictCache.containsKey(dictType)) {
-            return dictCache.get(dictType);
+    @Override
+    public String getDictLabel(String dictType, String dictValue) {
+        if (dictType == null || dictValue == null) {
+            return null;
         }
+        String label = getSnapshot().getLabel(dictType, dictValue);
+        (label == null ? misses : hits).increment();
+        return label;
+    }
 
-        // 缓存未命中，从数据库查询
-        List<DictData> dictDataList = dictDataMapper.selectDictDataByType(dictType);
-
-        // 放入缓存
-        if (dictDataList != null && !dictDataList.isEmpty()) {
-            dictCache.put(dictType, dictDataList);
-            log.debug("字典数据已缓存: dictType={}, size={}", dictType, dictDataList.size());
+    @Override
+    public DictSnapshot getSnapshot() {
+        DictSnapshot current = snapshot.get();
+        if (current != DictSnapshot.EMPTY || System.nanoTime() - nextLoadNanos < 0) {
+            return current;
         }
-
-        return dictDataList;
+        // 启动时加载失败，同步补加载一次；加载失败后 retry-interval 内直接返回空快照，由定时任务或下一次重试恢复
+        // 其他线程正在加载时不等待，直接返回空快照，避免数据库不可用时所有请求排队查库
+        // 使用 ReentrantLock 而不是 synchronized：持锁期间查库，在虚拟线程上 synchronized 会占住载体线程
+        if (!loadLock.tryLock()) {
+            return snapshot.get();
+        }
+        try {
+            if (snapshot.get() == DictSnapshot.EMPTY && System.nanoTime() - nextLoadNanos >= 0) {
+                reload();
+            }
+        } catch (Exception e) {
+            nextLoadNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryIntervalMs);
+            log.warn("字典补加载失败，{}ms 内不再重试", retryIntervalMs, e);
+        } finally {
+            loadLock.unlock();
+        }
+        return snapshot.get();
     }
 
     @Override
-    public String getDictLabel(String dictType, String dictValue) {
-        if (dictType == null || dictValue == null) {
-            return null;
+    public void refreshCache() {
+        long version = currentVersion();
+        try {
+            version = stringRedisTemplate.opsForValue().increment(CacheConstants.DICT_VERSION_KEY);
+            stringRedisTemplate.convertAndSend(CacheConstants.DICT_CHANGED_CHANNEL, String.valueOf(version));
+        } catch (Exception e) {
+            log.warn("字典版本广播失败，仅刷新本节点", e);
         }
+        log.info("字典缓存刷新: version={}", version);
+        reloadAsync();
+    }
 
-        String cacheKey = dictType + ":" + dictValue;
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("dict.cache.size", snapshot, ref -> ref.get().size())
+                .description("字典快照中的字典类型数").register(registry);
+        Gauge.builder("dict.cache.version", snapshot, ref -> ref.get().getVersion())
+                .description("当前字典快照的版本号").register(registry);
+        FunctionCounter.builder("dict.cache.gets", hits, LongAdder::sum).tag("result", "hit")
+                .description("字典查询次数").register(registry);
+        FunctionCounter.builder("dict.cache.gets", misses, LongAdder::sum).tag("result", "miss")
+                .description("字典查询次数").register(registry);
+        FunctionCounter.builder("dict.cache.loads", loads, LongAdder::sum).tag("result", "success")
+                .description("字典快照加载次数").register(registry);
+        FunctionCounter.builder("dict.cache.loads", loadFailures, LongAdder::sum).tag("result", "failure")
+                .description("字典快照加载次数").register(registry);
+    }
 
-        // 先从缓存获取
-        if (labelCache.containsKey(cacheKey)) {
-            return labelCache.get(cacheKey);
+    /**
+     * 定时比对 Redis 中的版本号，防止错过变更广播
+     */
+    @Scheduled(fixedDelayString = "${dict.version-check-interval:60000}",
+            initialDelayString = "${dict.version-check-interval:60000}")
+    public void checkVersion() {
+        if (snapshot.get().getVersion() < currentVersion()) {
+            reloadAsync();
         }
+    }
 
-        // 缓存未命中，从数据库查询
-        String label = dictDataMapper.selectDictLabel(dictType, dictValue);
+    // ==================== 私有辅助方法 ====================
+
+    /**
+     * 在后台线程中重新加载字典
+     */
+    private void reloadAsync() {
+        reloadExecutor.execute(() -> {
+            try {
+                reload();
+            } catch (Exception e) {
+                log.error("字典重新加载失败，继续使用旧快照: version={}", snapshot.get().getVersion(), e);
+            }
+        });
+    }
 
-        // 放入缓存
-        if (label != null) {
-            labelCache.put(cacheKey, label);
-            log.debug("字典标签已缓存: {}={}", cacheKey, label);
+    /**
+     * 重新加载字典，并记录加载成功/失败次数
+     */
+    private void reload() {
+        try {
+            doReload();
+            loads.increment();
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            throw e;
         }
+    }
 
-        return label;
+    /**
+     * 从数据库加载全部字典并替换当前快照
+     * 先读取版本号再查询数据，加载期间发生的变更会因版本号更大而触发下一次加载
+     */
+    private void doReload() {
+        long version = currentVersion();
+        List<DictType> dictTypes = dictTypeMapper.selectList(Wrappers.<DictType>lambdaQuery()
+                .eq(DictType::getStatus, "0"));
+        List<DictData> dictDataList = dictDataMapper.selectAllDictData();
+        DictSnapshot loaded = DictSnapshot.of(version,
+                dictTypes != null ? dictTypes : List.of(),
+                dictDataList != null ? dictDataList : List.of());
+        snapshot.set(loaded);
+        log.info("字典快照已加载: version={}, types={}", version, loaded.size());
     }
 
-    @Override
-    public void refreshCache() {
-        dictCache.clear();
-        labelCache.clear();
-        log.info("字典缓存已清空");
+    /**
+     * Redis 中的字典版本号，Redis 不可用或尚未设置时为 0
+     */
+    private long currentVersion() {
+        try {
+            String value = stringRedisTemplate.opsForValue().get(CacheConstants.DICT_VERSION_KEY);
+            return value == null ? 0L : Long.parseLong(value);
+        } catch (Exception e) {
+            log.warn("读取字典版本号失败", e);
+            return 0L;
+        }
+    }
+
+    /**
+     * 处理字典变更广播（包括自己发出的，重复加载由版本号比较过滤）
+     */
+    private void onChanged(Message message) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            if (Long.parseLong(payload) > snapshot.get().getVersion()) {
+                reloadAsync();
+            }
+        } catch (NumberFormatException e) {
+            log.warn("忽略无效的字典变更消息: {}", payload);
+        }
     }
 }
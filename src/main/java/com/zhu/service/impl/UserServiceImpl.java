@@ -1,22 +1,68 @@
 package com.zhu.service.impl;
 
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.exception.ExcelAnalysisException;
+import com.alibaba.excel.read.builder.ExcelReaderBuilder;
+import com.alibaba.excel.support.ExcelTypeEnum;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.zhu.batch.UserBatchLoader;
+import com.zhu.batch.UserInsertBatcher;
+import com.zhu.cache.UserCache;
 import com.zhu.domain.dto.userdto.UserAddDTO;
+import com.zhu.domain.dto.userdto.UserImportDTO;
 import com.zhu.domain.dto.userdto.UserQueryDTO;
 import com.zhu.domain.dto.userdto.UserUpdateDTO;
+import com.zhu.domain.entity.DictData;
 import com.zhu.domain.entity.User;
+import com.zhu.domain.vo.CursorPageVO;
 import com.zhu.domain.vo.uservo.*;
+import com.zhu.event.UserChangedEvent;
+import com.zhu.handler.excel.UserExcelExportHandler;
+import com.zhu.handler.excel.UserExcelImportListener;
+import com.zhu.handler.json.NdjsonResultHandler;
 import com.zhu.mapper.UserMapper;
+import com.zhu.search.UserSearchIndex;
+import com.zhu.search.UserSuggestIndex;
+import com.zhu.stats.UserStatsCounter;
 import com.zhu.service.UserService;
+import com.zhu.utils.BeanCopyUtils;
+import com.zhu.utils.CursorUtils;
+import com.zhu.utils.RedisCache;
 import com.zhu.utils.DictUtils;
+import com.zhu.common.constants.CacheConstants;
 import com.zhu.common.result.ResponseResult;
 import com.zhu.converter.UserConverter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
 
 /**
  * 用户表(User)表服务实现类
@@ -30,9 +76,66 @@ import java.util.List;
  * @author xiaozhu
  * @since 2022-10-04 00:06:26
  */
+@Slf4j
 @Service("userService")
 public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements UserService {
 
+    /**
+     * 单页最大数量，与分页插件的 maxLimit 保持一致
+     */
+    private static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * 用户名联想最多返回的个数
+     */
+    private static final int MAX_SUGGEST_SIZE = 50;
+
+    /**
+     * 导入结果中最多返回的错误行数
+     */
+    private static final int MAX_IMPORT_ERRORS = 1000;
+
+    /**
+     * 统计聚合查询结果的缓存时间
+     */
+    private static final Duration STATS_QUERY_TTL = Duration.ofSeconds(60);
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private UserSuggestIndex userSuggestIndex;
+
+    @Autowired
+    private UserStatsCounter userStats;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private UserInsertBatcher userInsertBatcher;
+
+    @Autowired
+    private UserBatchLoader userBatchLoader;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 模糊搜索最多返回的用户数
+     */
+    @Value("${search.user.max-results:1000}")
+    private int searchMaxResults;
+
     // ==================== 基础CRUD（使用Lambda Query） ====================
 
     /**
@@ -53,15 +156,16 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
 
     /**
      * 根据ID获取用户详情
-     * 使用getById方法（MyBatis Plus提供），返回UserDetailVO
+     * 先查两级缓存，未命中再使用getById方法（MyBatis Plus提供），返回UserDetailVO
      */
     @Override
     public ResponseResult getUserById(Long id) {
         if (id == null) {
             return ResponseResult.errorResult(400, "用户ID不能为空");
         }
-        User user = getById(id);
-        if (user == null || user.getDelFlag() == 1) {
+        // 并发的按ID查询合并为一次 Redis MGET + 一次 IN 查询
+        User user = userBatchLoader.load(id);
+        if (user == null) {
             return ResponseResult.errorResult(404, "用户不存在");
         }
         // 转换为DetailVO
@@ -79,11 +183,11 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             return ResponseResult.errorResult(400, "用户名不能为空");
         }
 
-        // Lambda查询：eq表示等于
-        User user = lambdaQuery()
-                .eq(User::getUserName, username)
+        // 先查两级缓存，未命中再使用Lambda查询：eq表示等于
+        User user = userCache.getByUserName(username, key -> lambdaQuery()
+                .eq(User::getUserName, key)
                 .eq(User::getDelFlag, 0)
-                .one();
+                .one());
 
         if (user == null) {
             return ResponseResult.errorResult(404, "用户不存在");
@@ -103,10 +207,10 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             return ResponseResult.errorResult(400, "邮箱不能为空");
         }
 
-        User user = lambdaQuery()
-                .eq(User::getEmail, email)
+        User user = userCache.getByEmail(email, key -> lambdaQuery()
+                .eq(User::getEmail, key)
                 .eq(User::getDelFlag, 0)
-                .one();
+                .one());
 
         if (user == null) {
             return ResponseResult.errorResult(404, "用户不存在");
@@ -121,15 +225,15 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
      * 使用MyBatis Plus的Page分页，返回UserVO
      */
     @Override
-    public ResponseResult getUsersByPage(Integer pageNum, Integer pageSize) {
+    public ResponseResult getUsersByPage(Integer pageNum, Integer pageSize, Boolean searchCount) {
         pageNum = pageNum == null || pageNum < 1 ? 1 : pageNum;
         pageSize = pageSize == null || pageSize < 1 ? 10 : pageSize;
 
-        // Lambda分页查询
+        // Lambda分页查询，searchCount=false 时不执行 COUNT(*)
         Page<User> page = lambdaQuery()
                 .eq(User::getDelFlag, 0)
                 .orderByDesc(User::getCreateTime)
-                .page(new Page<>(pageNum, pageSize));
+                .page(new Page<>(pageNum, pageSize, !Boolean.FALSE.equals(searchCount)));
 
         // 转换为VO分页对象
         Page<UserVO> voPage = new Page<>(page.getCurrent(), page.getSize(), page.getTotal());
@@ -138,6 +242,45 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         return ResponseResult.okResult(voPage);
     }
 
+    /**
+     * 游标分页查询用户
+     * 按 (create_time, id) 定位下一页，不使用 OFFSET，只有显式要求时才查询总数
+     */
+    @Override
+    public ResponseResult getUsersByCursor(String cursor, Integer pageSize, Boolean searchCount) {
+        pageSize = pageSize == null || pageSize < 1 ? 10 : Math.min(pageSize, MAX_PAGE_SIZE);
+
+        CursorUtils.SeekPosition position;
+        try {
+            position = CursorUtils.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseResult.errorResult(400, "游标无效");
+        }
+
+        // 多查一条用于判断是否还有下一页
+        List<User> users = baseMapper.selectUsersBySeek(
+                position == null ? null : position.getCreateTime(),
+                position == null ? null : position.getId(),
+                pageSize + 1);
+        boolean hasMore = users.size() > pageSize;
+        if (hasMore) {
+            users = users.subList(0, pageSize);
+        }
+
+        CursorPageVO<UserVO> voPage = new CursorPageVO<>();
+        voPage.setRecords(UserConverter.toVOList(users));
+        voPage.setSize(pageSize);
+        voPage.setHasMore(hasMore);
+        if (hasMore) {
+            User last = users.get(users.size() - 1);
+            voPage.setNextCursor(CursorUtils.encode(last.getCreateTime(), last.getId()));
+        }
+        if (Boolean.TRUE.equals(searchCount)) {
+            voPage.setTotal(lambdaQuery().eq(User::getDelFlag, 0).count());
+        }
+        return ResponseResult.okResult(voPage);
+    }
+
     /**
      * 根据状态查询用户
      * Lambda查询示例：条件查询+排序，返回UserVO
@@ -191,16 +334,6 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             return ResponseResult.errorResult(400, "用户信息不能为空");
         }
 
-        // 检查用户名是否已存在
-        Long count = lambdaQuery()
-                .eq(User::getUserName, dto.getUserName())
-                .eq(User::getDelFlag, 0)
-                .count();
-
-        if (count > 0) {
-            return ResponseResult.errorResult(400, "用户名已存在");
-        }
-
         // DTO转Entity
         User user = UserConverter.toEntity(dto);
 
@@ -214,8 +347,15 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             user.setType("0"); // 默认普通用户
         }
 
-        boolean saved = save(user);
-        return saved ? ResponseResult.okResult() : ResponseResult.errorResult(500, "添加失败");
+        // 用户名唯一性由唯一索引保证，并发请求合并为多行 INSERT
+        try {
+            userInsertBatcher.insert(user);
+        } catch (DuplicateKeyException e) {
+            return ResponseResult.errorResult(400, "用户名已存在");
+        }
+        userStats.record(List.of(), List.of(user));
+        afterUsersChanged(List.of(user.getId()));
+        return ResponseResult.okResult();
     }
 
     /**
@@ -239,6 +379,10 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         user.setUpdateTime(new Date());
 
         boolean updated = updateById(user);
+        if (updated && affectsStats(dto)) {
+            userStats.record(List.of(existUser), selectStatsRows(List.of(dto.getId())));
+        }
+        afterUsersChanged(List.of(dto.getId()));
         return updated ? ResponseResult.okResult() : ResponseResult.errorResult(500, "更新失败");
     }
 
@@ -264,13 +408,17 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
                 .set(User::getUpdateTime, new Date())
                 .eq(User::getId, id)
                 .update();
+        if (updated) {
+            userStats.record(List.of(user), List.of());
+        }
+        afterUsersChanged(List.of(id));
 
         return updated ? ResponseResult.okResult() : ResponseResult.errorResult(500, "删除失败");
     }
 
     /**
      * 批量删除用户
-     * Lambda更新示例：批量更新
+     * 在一个事务中锁定并逻辑删除未删除的用户，统计只扣减实际删除的行
      */
     @Override
     public ResponseResult batchDeleteUsers(List<Long> ids) {
@@ -278,17 +426,85 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             return ResponseResult.errorResult(400, "用户ID列表不能为空");
         }
 
-        // Lambda批量更新
-        boolean updated = lambdaUpdate()
-                .set(User::getDelFlag, 1)
-                .set(User::getUpdateTime, new Date())
-                .in(User::getId, ids)
-                .eq(User::getDelFlag, 0)
-                .update();
+        // 先锁定仍未删除的行再删除：重叠的并发批量删除在行锁上排队，后者查不到已删除的行，
+        // 统计只扣减本次实际删除的用户，不会重复扣减
+        List<User> deleted = transactionTemplate.execute(status -> {
+            List<User> rows = baseMapper.selectLiveUsersForUpdate(ids);
+            if (!rows.isEmpty()) {
+                baseMapper.logicDeleteByIds(rows.stream().map(User::getId).toList());
+            }
+            return rows;
+        });
+        boolean updated = deleted != null && !deleted.isEmpty();
+        if (updated) {
+            userStats.record(deleted, List.of());
+        }
+        afterUsersChanged(ids);
 
         return updated ? ResponseResult.okResult() : ResponseResult.errorResult(500, "批量删除失败");
     }
 
+    // ==================== 流式查询（NDJSON） ====================
+
+    /**
+     * 流式输出所有用户
+     * 与 getAllUsers 条件相同，逐行查询、转换、写出，不构建完整列表
+     */
+    @Override
+    public void streamAllUsers(OutputStream out) {
+        streamUsersByCondition(new UserQueryDTO(), out);
+    }
+
+    /**
+     * 流式输出指定状态的用户
+     */
+    @Override
+    public void streamUsersByStatus(String status, OutputStream out) {
+        UserQueryDTO dto = new UserQueryDTO();
+        dto.setStatus(status);
+        streamUsersByCondition(dto, out);
+    }
+
+    /**
+     * 流式输出指定类型的用户
+     * 与 getUsersByType 一致，只输出正常状态的用户
+     */
+    @Override
+    public void streamUsersByType(String type, OutputStream out) {
+        UserQueryDTO dto = new UserQueryDTO();
+        dto.setType(type);
+        dto.setStatus("0");
+        streamUsersByCondition(dto, out);
+    }
+
+    /**
+     * 流式输出多条件查询的用户
+     */
+    @Override
+    public void streamUsersByCondition(UserQueryDTO dto, OutputStream out) {
+        if (dto == null) {
+            dto = new UserQueryDTO();
+        }
+        NdjsonResultHandler<User> handler = new NdjsonResultHandler<>(out, UserConverter::toVO);
+        baseMapper.streamUsersByCondition(
+                dto.getUserName(), dto.getNickName(), dto.getEmail(),
+                dto.getPhonenumber(), dto.getStatus(), dto.getType(),
+                dto.getSex(), dto.getStartTime(), dto.getEndTime(),
+                handler
+        );
+        log.debug("流式输出用户完成: rows={}", handler.getCount());
+    }
+
+    /**
+     * 流式输出模糊搜索的用户
+     */
+    @Override
+    public void streamSearchUsers(String keyword, OutputStream out) {
+        NdjsonResultHandler<User> handler = new NdjsonResultHandler<>(out, UserConverter::toVO);
+        baseMapper.streamSearchUsers(keyword, handler);
+        log.debug("流式输出搜索结果完成: keyword={}, rows={}", keyword, handler.getCount());
+    }
+
     // ==================== 复杂查询（使用XML） ====================
 
     /**
@@ -310,25 +526,83 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         return ResponseResult.okResult(userVOList);
     }
 
+    /**
+     * 流式导出用户到 Excel
+     * 通过 ResultHandler 逐行读取，分批写入 EasyExcel，堆内存占用与导出行数无关
+     */
+    @Override
+    public void exportUsers(UserQueryDTO dto, OutputStream out) {
+        if (dto == null) {
+            dto = new UserQueryDTO();
+        }
+        long start = System.currentTimeMillis();
+        try (ExcelWriter excelWriter = EasyExcel.write(out, UserExcelVO.class).autoCloseStream(false).build()) {
+            UserExcelExportHandler handler = new UserExcelExportHandler(excelWriter);
+            baseMapper.streamUsersByCondition(
+                    dto.getUserName(), dto.getNickName(), dto.getEmail(),
+                    dto.getPhonenumber(), dto.getStatus(), dto.getType(),
+                    dto.getSex(), dto.getStartTime(), dto.getEndTime(),
+                    handler
+            );
+            long total = handler.finish();
+            log.info("用户导出完成: rows={}, cost={}ms", total, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * 批量导入用户
+     * EasyExcel 流式解析，每批 1000 行：逐行校验（与添加用户的规则一致）、整批查重、多行 VALUES 插入
+     * 每批独立提交，失败的行记录行号和原因，不影响其他行
+     */
+    @Override
+    public ResponseResult importUsers(InputStream in, String fileName) {
+        long start = System.currentTimeMillis();
+        UserImportResultVO result = new UserImportResultVO();
+        // 文件内已出现的用户名（小写），用于文件内查重
+        Set<String> seenNames = new HashSet<>();
+        ExcelReaderBuilder reader = EasyExcel.read(in, UserImportDTO.class,
+                new UserExcelImportListener(rows -> importBatch(rows, seenNames, result)));
+        if (fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".csv")) {
+            reader.excelType(ExcelTypeEnum.CSV).charset(StandardCharsets.UTF_8);
+        }
+        try {
+            reader.sheet().doRead();
+        } catch (ExcelAnalysisException e) {
+            result.setCostTime(System.currentTimeMillis() - start);
+            String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.error("用户导入中断: file={}, total={}, success={}", fileName, result.getTotal(), result.getSuccess(), e);
+            return new ResponseResult<>(500, "导入中断：" + message, result);
+        }
+        result.setCostTime(System.currentTimeMillis() - start);
+        log.info("用户导入完成: file={}, total={}, success={}, failed={}, cost={}ms",
+                fileName, result.getTotal(), result.getSuccess(), result.getFailed(), result.getCostTime());
+        return ResponseResult.okResult(result);
+    }
+
     /**
      * 统计各类型用户数量
-     * Mapper 直接返回 VO，无需转换
+     * 优先读取增量维护的统计计数，不可用时由 Mapper 直接返回 VO（结果短期缓存，并发未命中只查询一次）
      */
     @Override
     public ResponseResult countUsersByType() {
-        List<UserTypeStatisticsVO> voList = baseMapper.countUsersByType();
-        // 设置描述字段
-        voList.forEach(vo -> vo.setUserTypeDesc(DictUtils.getTypeDesc(vo.getUserType())));
+        // 描述字段在放入缓存前设置：缓存（包括近端缓存）中的 VO 由并发请求共享，读取后不能再修改
+        List<UserTypeStatisticsVO> voList = userStats.isReady()
+                ? withTypeDesc(userStats.countByType())
+                : redisCache.getOrLoad(CacheConstants.USER_STATS_QUERY_KEY + "type", STATS_QUERY_TTL,
+                        () -> withTypeDesc(baseMapper.countUsersByType()));
         return ResponseResult.okResult(voList);
     }
 
     /**
      * 查询用户统计信息
-     * Mapper 直接返回 VO，无需转换
+     * 不限时间范围时读取增量维护的统计计数，否则由 Mapper 直接返回 VO（结果短期缓存，并发未命中只查询一次）
      */
     @Override
     public ResponseResult getUserStatistics(Date startTime, Date endTime) {
-        UserStatisticsVO vo = baseMapper.getUserStatistics(startTime, endTime);
+        UserStatisticsVO vo = startTime == null && endTime == null && userStats.isReady()
+                ? userStats.statistics()
+                : redisCache.getOrLoad(CacheConstants.USER_STATS_QUERY_KEY + "range:" + timeKey(startTime) + ":" + timeKey(endTime),
+                        STATS_QUERY_TTL, () -> baseMapper.getUserStatistics(startTime, endTime));
         return ResponseResult.okResult(vo);
     }
 
@@ -341,7 +615,9 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         if (ids == null || ids.isEmpty()) {
             return ResponseResult.errorResult(400, "ID列表不能为空");
         }
-        List<User> users = baseMapper.selectUsersByIds(ids);
+        // 按请求中ID的顺序返回，不存在或已删除的ID忽略
+        List<User> users = userBatchLoader.loadMany(ids.stream().filter(Objects::nonNull).distinct().toList())
+                .stream().filter(Objects::nonNull).toList();
         // 转换为VO
         List<UserVO> userVOList = UserConverter.toVOList(users);
         return ResponseResult.okResult(userVOList);
@@ -364,6 +640,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
 
     /**
      * 模糊搜索用户
+     * 优先使用内存倒排索引得到按相关度排序的ID，再按ID查询；索引未就绪时退回数据库模糊查询
      * 返回UserVO
      */
     @Override
@@ -371,12 +648,40 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         if (!StringUtils.hasText(keyword)) {
             return ResponseResult.errorResult(400, "搜索关键词不能为空");
         }
-        List<User> users = baseMapper.searchUsers(keyword);
+        List<Long> ids = userSearchIndex.search(keyword, searchMaxResults);
+        List<User> users = ids == null ? baseMapper.searchUsers(keyword) : selectUsersInOrder(ids);
         // 转换为VO
         List<UserVO> userVOList = UserConverter.toVOList(users);
         return ResponseResult.okResult(userVOList);
     }
 
+    /**
+     * 用户名联想
+     * 优先使用内存中的前缀树，按创建时间取最近的用户；索引未就绪时按前缀查库
+     */
+    @Override
+    public ResponseResult suggestUsers(String prefix, Integer limit) {
+        if (!StringUtils.hasText(prefix)) {
+            return ResponseResult.errorResult(400, "前缀不能为空");
+        }
+        int size = limit == null || limit <= 0 ? 10 : Math.min(limit, MAX_SUGGEST_SIZE);
+        List<UserSuggestVO> result = userSuggestIndex.suggest(prefix, size);
+        if (result == null) {
+            result = lambdaQuery()
+                    .select(User::getId, User::getUserName, User::getNickName)
+                    .eq(User::getDelFlag, 0)
+                    .and(wrapper -> wrapper.likeRight(User::getUserName, prefix)
+                            .or().likeRight(User::getNickName, prefix))
+                    .orderByDesc(User::getCreateTime)
+                    .last("LIMIT " + size)
+                    .list()
+                    .stream()
+                    .map(user -> new UserSuggestVO(user.getId(), user.getUserName(), user.getNickName()))
+                    .toList();
+        }
+        return ResponseResult.okResult(result);
+    }
+
     /**
      * 查询用户及其创建者信息
      * Mapper 直接返回 VO，无需转换
@@ -401,17 +706,25 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             return ResponseResult.errorResult(400, "状态不能为空");
         }
 
+        List<User> before = selectStatsRows(ids);
         int count = baseMapper.batchUpdateStatus(ids, status, updateBy);
+        if (count > 0) {
+            userStats.record(before, selectStatsRows(ids));
+        }
+        afterUsersChanged(ids);
         return count > 0 ? ResponseResult.okResult(count) : ResponseResult.errorResult(500, "更新失败");
     }
 
     /**
      * 按月统计用户注册数量
-     * Mapper 直接返回 VO，无需转换
+     * 优先读取增量维护的统计计数，不可用时由 Mapper 直接返回 VO（结果短期缓存，并发未命中只查询一次）
      */
     @Override
     public ResponseResult countUsersByMonth(Integer year) {
-        List<UserMonthStatisticsVO> voList = baseMapper.countUsersByMonth(year);
+        List<UserMonthStatisticsVO> voList = userStats.isReady()
+                ? userStats.countByMonth(year)
+                : redisCache.getOrLoad(CacheConstants.USER_STATS_QUERY_KEY + "month:" + year, STATS_QUERY_TTL,
+                        () -> baseMapper.countUsersByMonth(year));
         return ResponseResult.okResult(voList);
     }
 
@@ -429,8 +742,257 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         User user = UserConverter.toEntity(dto);
         user.setUpdateTime(new Date());
 
+        List<User> before = affectsStats(dto) ? selectStatsRows(List.of(dto.getId())) : List.of();
         int count = baseMapper.updateUserSelective(user);
+        if (count > 0 && affectsStats(dto)) {
+            userStats.record(before, selectStatsRows(List.of(dto.getId())));
+        }
+        afterUsersChanged(List.of(dto.getId()));
         return count > 0 ? ResponseResult.okResult() : ResponseResult.errorResult(500, "更新失败");
     }
 
+    // ==================== 条件请求（ETag） ====================
+
+    /**
+     * 单个用户的 ETag
+     * 与响应体来自同一个缓存对象（不会出现新 ETag 配旧内容），字典版本变化时同样改变
+     */
+    @Override
+    public String getUserETag(Long id) {
+        if (id == null) {
+            return null;
+        }
+        long dictVersion = DictUtils.snapshot().getVersion();
+        User user = userBatchLoader.load(id);
+        if (user == null) {
+            // 不存在的用户随用户表版本戳变化（新增后不再命中 304）
+            String version = userVersion();
+            return version == null ? null : "u" + id + "-none-" + version + "-d" + dictVersion;
+        }
+        Date modified = user.getUpdateTime() != null ? user.getUpdateTime() : user.getCreateTime();
+        return "u" + id + "-" + (modified == null ? 0 : modified.getTime())
+                + "-" + Integer.toHexString(user.hashCode()) + "-d" + dictVersion;
+    }
+
+    @Override
+    public String getUsersETag() {
+        String version = userVersion();
+        return version == null ? null : "all-" + version + "-d" + DictUtils.snapshot().getVersion();
+    }
+
+    /**
+     * 统计结果在各节点的快照中最多滞后几秒、按时间范围的结果缓存 STATS_QUERY_TTL，
+     * 只用版本戳时节点可能把滞后的结果配上新版本戳，因此 ETag 同时按 STATS_QUERY_TTL 分段，
+     * 客户端持有旧结果的时间不超过统计本身允许的滞后时间
+     */
+    @Override
+    public String getStatisticsETag() {
+        String version = userVersion();
+        if (version == null) {
+            return null;
+        }
+        long window = System.currentTimeMillis() / STATS_QUERY_TTL.toMillis();
+        return "stats-" + version + "-w" + window + "-d" + DictUtils.snapshot().getVersion();
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    /**
+     * 读取用户表版本戳，不存在时（首次使用或 Redis 数据丢失）写入一个新的随机值
+     * 使用随机值而不是递增计数，Redis 数据丢失后不会重新发出客户端已持有的旧值
+     *
+     * @return 版本戳，Redis 异常时返回 null（不使用条件请求）
+     */
+    private String userVersion() {
+        try {
+            String version = redisCache.getCacheObject(CacheConstants.USER_VERSION_KEY);
+            if (version == null) {
+                redisCache.setCacheObjectIfAbsent(CacheConstants.USER_VERSION_KEY, newVersion());
+                version = redisCache.getCacheObject(CacheConstants.USER_VERSION_KEY);
+            }
+            return version;
+        } catch (Exception e) {
+            log.warn("读取用户表版本戳失败", e);
+            return null;
+        }
+    }
+
+    private static String newVersion() {
+        return Long.toHexString(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * 用户数据变更后：失效缓存，并发布变更事件（搜索索引等据此增量更新）
+     */
+    private void afterUsersChanged(Collection<Long> ids) {
+        userCache.evict(ids);
+        try {
+            redisCache.setCacheObject(CacheConstants.USER_VERSION_KEY, newVersion());
+        } catch (Exception e) {
+            // 列表和统计接口的 ETag 在下一次变更前可能返回 304
+            log.warn("更新用户表版本戳失败", e);
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(ids));
+    }
+
+    /**
+     * 导入一批用户：校验 -> 文件内查重 -> 数据库查重 -> 批量插入
+     */
+    private void importBatch(List<UserImportDTO> rows, Set<String> seenNames, UserImportResultVO result) {
+        List<User> users = new ArrayList<>(rows.size());
+        List<UserImportDTO> accepted = new ArrayList<>(rows.size());
+        Date now = new Date();
+        for (UserImportDTO row : rows) {
+            result.setTotal(result.getTotal() + 1);
+            String error = validateImportRow(row);
+            if (error == null && !seenNames.add(row.getUserName().toLowerCase(Locale.ROOT))) {
+                error = "文件中用户名重复";
+            }
+            if (error != null) {
+                addImportError(result, row, error);
+                continue;
+            }
+            User user = BeanCopyUtils.copyBean(row, User.class);
+            user.setStatus("0");
+            user.setType(user.getType() == null ? "0" : user.getType());
+            user.setCreateTime(now);
+            user.setDelFlag(0);
+            users.add(user);
+            accepted.add(row);
+        }
+        if (users.isEmpty()) {
+            return;
+        }
+
+        // 整批查重（数据库排序规则通常不区分大小写，统一按小写比较）
+        Set<String> existing = baseMapper.selectExistingUserNames(
+                        users.stream().map(User::getUserName).toList())
+                .stream().map(name -> name.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        List<User> toInsert = new ArrayList<>(users.size());
+        List<UserImportDTO> toInsertRows = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            if (existing.contains(users.get(i).getUserName().toLowerCase(Locale.ROOT))) {
+                addImportError(result, accepted.get(i), "用户名已存在");
+            } else {
+                toInsert.add(users.get(i));
+                toInsertRows.add(accepted.get(i));
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        List<User> inserted;
+        try {
+            baseMapper.insertBatch(toInsert);
+            inserted = toInsert;
+        } catch (DataAccessException e) {
+            // 整批失败（如并发写入了同名用户）时逐行插入，定位失败的行
+            log.warn("批量插入失败，改为逐行插入: rows={}", toInsert.size(), e);
+            inserted = new ArrayList<>(toInsert.size());
+            for (int i = 0; i < toInsert.size(); i++) {
+                try {
+                    baseMapper.insertBatch(List.of(toInsert.get(i)));
+                    inserted.add(toInsert.get(i));
+                } catch (DuplicateKeyException rowError) {
+                    addImportError(result, toInsertRows.get(i), "用户名已存在");
+                } catch (DataAccessException rowError) {
+                    addImportError(result, toInsertRows.get(i),
+                            "写入失败：" + NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+        result.setSuccess(result.getSuccess() + inserted.size());
+        if (!inserted.isEmpty()) {
+            userStats.record(List.of(), inserted);
+            afterUsersChanged(inserted.stream().map(User::getId).toList());
+        }
+    }
+
+    /**
+     * 校验导入的一行，性别、用户类型先由字典标签转换为字典值
+     *
+     * @return 错误原因，校验通过时返回 null
+     */
+    private String validateImportRow(UserImportDTO row) {
+        row.setSex(toDictValue(DictUtils.USER_SEX, row.getSex()));
+        row.setType(toDictValue(DictUtils.USER_TYPE, row.getType()));
+        UserAddDTO dto = BeanCopyUtils.copyBean(row, UserAddDTO.class);
+        Set<ConstraintViolation<UserAddDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted()
+                    .collect(Collectors.joining("；"));
+        }
+        if (row.getType() != null && !"0".equals(row.getType()) && !"1".equals(row.getType())) {
+            return "用户类型只能是0(普通用户)、1(管理员)";
+        }
+        return null;
+    }
+
+    /**
+     * 字典标签转字典值，既不是值也不是标签时原样返回（由校验报错）
+     */
+    private static String toDictValue(String dictType, String input) {
+        if (!StringUtils.hasText(input)) {
+            return null;
+        }
+        String value = input.trim();
+        for (DictData data : DictUtils.snapshot().getDictData(dictType)) {
+            if (value.equals(data.getDictValue()) || value.equals(data.getDictLabel())) {
+                return data.getDictValue();
+            }
+        }
+        return value;
+    }
+
+    private static void addImportError(UserImportResultVO result, UserImportDTO row, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_IMPORT_ERRORS) {
+            result.getErrors().add(new UserImportResultVO.RowError(row.getRowNumber(), row.getUserName(), message));
+        }
+    }
+
+    private static String timeKey(Date time) {
+        return time == null ? "" : String.valueOf(time.getTime());
+    }
+
+    /**
+     * 设置类型描述，在结果放入缓存前调用
+     */
+    private static List<UserTypeStatisticsVO> withTypeDesc(List<UserTypeStatisticsVO> voList) {
+        voList.forEach(vo -> vo.setUserTypeDesc(DictUtils.getTypeDesc(vo.getUserType())));
+        return voList;
+    }
+
+    /**
+     * 查询计入统计的字段（类型、状态、性别、创建时间），用于计算写操作前后的统计差量
+     */
+    private List<User> selectStatsRows(Collection<Long> ids) {
+        if (!userStats.isEnabled() || ids.isEmpty()) {
+            return List.of();
+        }
+        return lambdaQuery()
+                .select(User::getId, User::getType, User::getStatus, User::getSex, User::getCreateTime)
+                .in(User::getId, ids)
+                .eq(User::getDelFlag, 0)
+                .list();
+    }
+
+    /**
+     * 更新是否会改变统计维度（用户类型不可修改，只需关注状态和性别）
+     */
+    private boolean affectsStats(UserUpdateDTO dto) {
+        return StringUtils.hasText(dto.getStatus()) || StringUtils.hasText(dto.getSex());
+    }
+
+    /**
+     * 按ID查询用户，保持传入ID的顺序
+     */
+    private List<User> selectUsersInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return userBatchLoader.loadMany(ids).stream().filter(Objects::nonNull).toList();
+    }
+
 }
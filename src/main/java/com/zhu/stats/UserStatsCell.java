@@ -0,0 +1,82 @@
+package com.zhu.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用户统计单元格：按 类型 × 状态 × 性别 × 注册日期 分组的用户数
+ * 三个统计接口所需的数据都可以由单元格汇总得到
+ *
+ * @author xiaozhu
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatsCell {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * 用户类型
+     */
+    private String type;
+
+    /**
+     * 账号状态
+     */
+    private String status;
+
+    /**
+     * 性别
+     */
+    private String sex;
+
+    /**
+     * 注册日期 yyyy-MM-dd
+     */
+    private String day;
+
+    /**
+     * 用户数
+     */
+    private Long count;
+
+    /**
+     * 单元格在 Redis hash 中的字段名：type|status|sex|day，空值写为空串
+     */
+    public String field() {
+        return nullToEmpty(type) + SEPARATOR + nullToEmpty(status) + SEPARATOR
+                + nullToEmpty(sex) + SEPARATOR + nullToEmpty(day);
+    }
+
+    /**
+     * 由字段名和计数还原单元格，字段名格式不正确时返回 null
+     */
+    public static UserStatsCell parse(String field, long count) {
+        String[] parts = new String[4];
+        int start = 0;
+        for (int i = 0; i < 3; i++) {
+            int end = field.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                return null;
+            }
+            parts[i] = field.substring(start, end);
+            start = end + 1;
+        }
+        if (field.indexOf(SEPARATOR, start) >= 0) {
+            return null;
+        }
+        parts[3] = field.substring(start);
+        return new UserStatsCell(emptyToNull(parts[0]), emptyToNull(parts[1]),
+                emptyToNull(parts[2]), emptyToNull(parts[3]), count);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
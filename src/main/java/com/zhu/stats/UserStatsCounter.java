@@ -0,0 +1,399 @@
+package com.zhu.stats;
+
+import com.zhu.common.constants.CacheConstants;
+import com.zhu.domain.entity.User;
+import com.zhu.domain.vo.uservo.UserMonthStatisticsVO;
+import com.zhu.domain.vo.uservo.UserStatisticsVO;
+import com.zhu.domain.vo.uservo.UserTypeStatisticsVO;
+import com.zhu.mapper.UserMapper;
+import com.zhu.utils.RedisCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用户统计计数器（增量维护）
+ *
+ * 1. 以 类型 × 状态 × 性别 × 注册日期 为单元格计数，写操作按前后差量更新，统计接口只汇总单元格，不再扫描 sys_user
+ * 2. 本节点的差量先累加到 LongAdder（分段计数，写入无锁竞争），定时批量 HINCRBY 到 Redis hash，多节点共享
+ * 3. 定时读取 Redis hash 作为快照，并按类型、性别、月份、日期预先汇总（只按变化的单元格增减）；
+ *    读取时直接使用汇总结果，叠加本节点尚未写入 Redis 的差量，本节点的写操作立即可见
+ * 4. 定时对账：由一个节点重新 GROUP BY 统计并整体替换 Redis hash，修复并发写入、进程退出等造成的偏差
+ *
+ * 快照尚未加载（Redis 不可用或尚未对账）时 isReady 返回 false，由调用方查询数据库。
+ *
+ * @author xiaozhu
+ */
+@Slf4j
+@Component
+public class UserStatsCounter {
+
+    private static final String NODE_ID = UUID.randomUUID().toString().replace("-", "");
+
+    /**
+     * Redis hash 中记录对账时间的字段，同时用于区分"尚未对账"和"没有用户"
+     */
+    private static final String RECONCILED_FIELD = "_reconciledAt";
+
+    private static final Duration RECONCILE_LOCK_TIMEOUT = Duration.ofMinutes(5);
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Value("${stats.user.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 本节点尚未写入 Redis 的差量：单元格字段 -> 计数
+     */
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 最近一次读取的 Redis 快照，以及正在写入 Redis 的差量；两者一起替换，读取时不会漏算或重复计算
+     */
+    private volatile State state = new State(null, UserStatsTotals.EMPTY, Map.of());
+
+    /**
+     * 是否启用
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 快照是否可用，不可用时调用方应查询数据库
+     */
+    public boolean isReady() {
+        return enabled && state.counts != null;
+    }
+
+    /**
+     * 记录一次写操作：before 中的用户各减一，after 中的用户各加一
+     *
+     * @param before 写操作前计入统计的用户（未删除），新增时为空
+     * @param after 写操作后计入统计的用户（未删除），删除时为空
+     */
+    public void record(Collection<User> before, Collection<User> after) {
+        if (!enabled) {
+            return;
+        }
+        for (User user : before) {
+            add(cellOf(user), -1);
+        }
+        for (User user : after) {
+            add(cellOf(user), 1);
+        }
+    }
+
+    // ==================== 统计查询 ====================
+
+    /**
+     * 各类型用户数量，按类型排序
+     */
+    public List<UserTypeStatisticsVO> countByType() {
+        State current = state;
+        UserStatsTotals local = local(current);
+        Map<String, long[]> byType = new TreeMap<>();
+        current.totals.types.forEach((type, counts) -> byType.put(type, counts.clone()));
+        local.types.forEach((type, counts) -> {
+            long[] merged = byType.computeIfAbsent(type, k -> new long[3]);
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += counts[i];
+            }
+        });
+        List<UserTypeStatisticsVO> result = new ArrayList<>(byType.size());
+        byType.forEach((type, counts) -> {
+            if (counts[0] != 0) {
+                UserTypeStatisticsVO vo = new UserTypeStatisticsVO();
+                vo.setUserType(type.isEmpty() ? null : type);
+                vo.setCount(counts[0]);
+                vo.setActiveCount(counts[1]);
+                vo.setInactiveCount(counts[2]);
+                result.add(vo);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 全部用户的统计信息
+     */
+    public UserStatisticsVO statistics() {
+        State current = state;
+        UserStatsTotals local = local(current);
+        long total = 0, active = 0, inactive = 0;
+        for (UserStatsTotals totals : List.of(current.totals, local)) {
+            for (long[] counts : totals.types.values()) {
+                total += counts[0];
+                active += counts[1];
+                inactive += counts[2];
+            }
+        }
+        UserStatisticsVO vo = new UserStatisticsVO();
+        vo.setTotalUsers(total);
+        vo.setAdminCount(typeCount(current.totals, "1") + typeCount(local, "1"));
+        vo.setNormalCount(typeCount(current.totals, "0") + typeCount(local, "0"));
+        vo.setActiveUsers(active);
+        vo.setInactiveUsers(inactive);
+        vo.setMaleCount(current.totals.sex("0") + local.sex("0"));
+        vo.setFemaleCount(current.totals.sex("1") + local.sex("1"));
+        vo.setEarliestRegisterDate(firstDay(current.totals.days, local.days));
+        vo.setLatestRegisterDate(firstDay(current.totals.days.descendingMap(), local.days.descendingMap()));
+        return vo;
+    }
+
+    /**
+     * 按月统计注册数量，月份降序
+     *
+     * @param year 年份，为空时统计全部
+     */
+    public List<UserMonthStatisticsVO> countByMonth(Integer year) {
+        State current = state;
+        UserStatsTotals local = local(current);
+        Map<String, Long> byMonth = new TreeMap<>(Comparator.reverseOrder());
+        for (UserStatsTotals totals : List.of(current.totals, local)) {
+            NavigableMap<String, Long> months = year == null ? totals.months
+                    : totals.months.subMap(year + "-", true, year + "-" + Character.MAX_VALUE, true);
+            months.forEach((month, count) -> byMonth.merge(month, count, Long::sum));
+        }
+        List<UserMonthStatisticsVO> result = new ArrayList<>(byMonth.size());
+        byMonth.forEach((month, count) -> {
+            if (count != 0) {
+                UserMonthStatisticsVO vo = new UserMonthStatisticsVO();
+                vo.setMonth(month);
+                vo.setCount(count);
+                result.add(vo);
+            }
+        });
+        return result;
+    }
+
+    // ==================== 同步与对账 ====================
+
+    /**
+     * 把本节点的差量写入 Redis，并重新读取快照；首次读取不到时先对账
+     */
+    @Scheduled(fixedDelayString = "${stats.user.flush-interval:2000}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Long> drained = new HashMap<>();
+        pending.forEach((field, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                drained.put(field, delta);
+            }
+        });
+        state = new State(state.counts, state.totals, drained);
+        try {
+            if (!drained.isEmpty()) {
+                stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    byte[] key = CacheConstants.USER_STATS_KEY.getBytes(StandardCharsets.UTF_8);
+                    drained.forEach((field, delta) ->
+                            connection.hashCommands().hIncrBy(key, field.getBytes(StandardCharsets.UTF_8), delta));
+                    return null;
+                });
+            }
+        } catch (Exception e) {
+            // 写入失败的差量放回本地，下次重试
+            drained.forEach(this::add);
+            state = new State(state.counts, state.totals, Map.of());
+            log.warn("用户统计写入 Redis 失败，稍后重试", e);
+            return;
+        }
+        try {
+            Map<String, Long> counts = load();
+            if (counts == null) {
+                reconcile();
+            } else {
+                state = snapshot(counts);
+            }
+        } catch (Exception e) {
+            // 差量已写入 Redis，下次读取快照时会包含，这里先保留在本地快照中
+            Map<String, Long> counts = state.counts == null ? null : new HashMap<>(state.counts);
+            if (counts != null) {
+                drained.forEach((field, delta) -> counts.merge(field, delta, Long::sum));
+            }
+            state = counts == null ? new State(null, UserStatsTotals.EMPTY, Map.of()) : snapshot(counts);
+            log.warn("读取用户统计快照失败", e);
+        }
+    }
+
+    /**
+     * 定时对账：重新统计 sys_user 并整体替换 Redis hash
+     * 统计与替换之间其他节点写入的少量差量可能丢失或重复，由下一次对账修复
+     */
+    @Scheduled(cron = "${stats.user.reconcile-cron:0 */10 * * * *}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        Boolean locked;
+        try {
+            locked = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(CacheConstants.USER_STATS_LOCK_KEY, NODE_ID, RECONCILE_LOCK_TIMEOUT);
+        } catch (Exception e) {
+            log.warn("用户统计对账跳过：Redis 不可用", e);
+            return;
+        }
+        if (!Boolean.TRUE.equals(locked)) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            Map<String, String> fields = new HashMap<>();
+            Map<String, Long> counts = new HashMap<>();
+            for (UserStatsCell cell : userMapper.countUsersByCell()) {
+                fields.put(cell.field(), String.valueOf(cell.getCount()));
+                counts.put(cell.field(), cell.getCount());
+            }
+            fields.put(RECONCILED_FIELD, String.valueOf(start));
+
+            String tmpKey = CacheConstants.USER_STATS_KEY + ":" + NODE_ID;
+            stringRedisTemplate.opsForHash().putAll(tmpKey, fields);
+            stringRedisTemplate.rename(tmpKey, CacheConstants.USER_STATS_KEY);
+
+            long drift = drift(state.counts, counts);
+            state = new State(counts, UserStatsTotals.of(counts), Map.of());
+            if (drift != 0) {
+                log.warn("用户统计已校正: drift={}", drift);
+            }
+            log.info("用户统计对账完成: cells={}, cost={}ms", counts.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("用户统计对账失败", e);
+        } finally {
+            // 只释放自己持有的锁：对账超过锁的有效期时，锁可能已被其他节点获得
+            redisCache.compareAndDelete(CacheConstants.USER_STATS_LOCK_KEY, NODE_ID);
+        }
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    private void add(String field, long delta) {
+        pending.computeIfAbsent(field, k -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * 读取 Redis 中的统计，尚未对账过时返回 null
+     */
+    private Map<String, Long> load() {
+        Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(CacheConstants.USER_STATS_KEY);
+        if (!entries.containsKey(RECONCILED_FIELD)) {
+            return null;
+        }
+        Map<String, Long> counts = new HashMap<>(entries.size() * 2);
+        entries.forEach((field, value) -> {
+            if (!RECONCILED_FIELD.equals(field)) {
+                counts.put((String) field, Long.parseLong((String) value));
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * 以新读取的 Redis 统计替换快照，汇总结果只按变化的单元格增减
+     */
+    private State snapshot(Map<String, Long> counts) {
+        State current = state;
+        UserStatsTotals totals = current.counts == null ? UserStatsTotals.of(counts)
+                : current.totals.update(current.counts, counts);
+        return new State(counts, totals, Map.of());
+    }
+
+    /**
+     * 尚未计入快照的差量：正在写入 Redis 的差量 + 本节点尚未写入的差量（只有最近一个同步周期内的写操作）
+     */
+    private UserStatsTotals local(State current) {
+        UserStatsTotals local = new UserStatsTotals();
+        current.inFlight.forEach(local::add);
+        pending.forEach((field, adder) -> local.add(field, adder.sum()));
+        return local;
+    }
+
+    private static long typeCount(UserStatsTotals totals, String type) {
+        long[] counts = totals.types.get(type);
+        return counts == null ? 0L : counts[0];
+    }
+
+    /**
+     * 快照与本地差量合并后第一个用户数不为 0 的日期（按 map 的顺序）
+     */
+    private static String firstDay(NavigableMap<String, Long> snapshot, NavigableMap<String, Long> local) {
+        Comparator<? super String> order = snapshot.comparator() != null ? snapshot.comparator() : Comparator.naturalOrder();
+        String first = null;
+        for (Map.Entry<String, Long> entry : snapshot.entrySet()) {
+            if (entry.getValue() + local.getOrDefault(entry.getKey(), 0L) != 0) {
+                first = entry.getKey();
+                break;
+            }
+        }
+        for (Map.Entry<String, Long> entry : local.entrySet()) {
+            if (!snapshot.containsKey(entry.getKey())) {
+                if (first == null || order.compare(entry.getKey(), first) < 0) {
+                    first = entry.getKey();
+                }
+                break;
+            }
+        }
+        return first;
+    }
+
+    private static String cellOf(User user) {
+        String day = user.getCreateTime() == null ? null
+                : new SimpleDateFormat("yyyy-MM-dd").format(user.getCreateTime());
+        return new UserStatsCell(user.getType(), user.getStatus(), user.getSex(), day, null).field();
+    }
+
+    /**
+     * 两次统计之间各单元格差值的绝对值之和
+     */
+    private static long drift(Map<String, Long> before, Map<String, Long> after) {
+        if (before == null) {
+            return 0;
+        }
+        long drift = 0;
+        for (Map.Entry<String, Long> entry : after.entrySet()) {
+            drift += Math.abs(entry.getValue() - before.getOrDefault(entry.getKey(), 0L));
+        }
+        for (Map.Entry<String, Long> entry : before.entrySet()) {
+            if (!after.containsKey(entry.getKey())) {
+                drift += Math.abs(entry.getValue());
+            }
+        }
+        return drift;
+    }
+
+    /**
+     * @param counts Redis 快照，尚未加载时为 null
+     * @param totals 快照按维度的汇总
+     * @param inFlight 已从本地取出、正在写入 Redis 的差量
+     */
+    private record State(Map<String, Long> counts, UserStatsTotals totals, Map<String, Long> inFlight) {
+    }
+}
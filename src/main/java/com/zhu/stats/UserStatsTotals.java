@@ -0,0 +1,113 @@
+package com.zhu.stats;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * 按统计接口所需的维度预先汇总的单元格：类型（含正常/停用）、性别、注册月份、注册日期
+ *
+ * 快照替换时只按变化的单元格增减，统计接口直接读取汇总结果，不再遍历和解析全部单元格
+ *
+ * @author xiaozhu
+ */
+final class UserStatsTotals {
+
+    static final UserStatsTotals EMPTY = new UserStatsTotals();
+
+    /**
+     * 用户类型（空类型为空串）-> {用户数, 正常数, 停用数}
+     */
+    final TreeMap<String, long[]> types = new TreeMap<>();
+
+    /**
+     * 性别 -> 用户数
+     */
+    final Map<String, Long> sexes = new HashMap<>();
+
+    /**
+     * 注册月份 yyyy-MM -> 用户数
+     */
+    final TreeMap<String, Long> months = new TreeMap<>();
+
+    /**
+     * 注册日期 yyyy-MM-dd -> 用户数，用于最早/最晚注册日期
+     */
+    final TreeMap<String, Long> days = new TreeMap<>();
+
+    /**
+     * 汇总全部单元格
+     *
+     * @param counts 单元格字段 -> 计数
+     */
+    static UserStatsTotals of(Map<String, Long> counts) {
+        UserStatsTotals totals = new UserStatsTotals();
+        counts.forEach(totals::add);
+        return totals;
+    }
+
+    /**
+     * 在当前汇总的基础上只计入 before -> after 之间变化的单元格，返回新的汇总（当前汇总不变）
+     */
+    UserStatsTotals update(Map<String, Long> before, Map<String, Long> after) {
+        UserStatsTotals totals = copy();
+        after.forEach((field, count) -> {
+            long delta = count - before.getOrDefault(field, 0L);
+            if (delta != 0) {
+                totals.add(field, delta);
+            }
+        });
+        before.forEach((field, count) -> {
+            if (!after.containsKey(field)) {
+                totals.add(field, -count);
+            }
+        });
+        return totals;
+    }
+
+    /**
+     * 计入一个单元格的差量，字段名格式不正确时忽略
+     */
+    void add(String field, long delta) {
+        UserStatsCell cell = UserStatsCell.parse(field, delta);
+        if (cell == null || delta == 0) {
+            return;
+        }
+        long[] type = types.computeIfAbsent(Objects.toString(cell.getType(), ""), k -> new long[3]);
+        type[0] += delta;
+        if ("0".equals(cell.getStatus())) {
+            type[1] += delta;
+        } else if ("1".equals(cell.getStatus())) {
+            type[2] += delta;
+        }
+        if (cell.getSex() != null) {
+            merge(sexes, cell.getSex(), delta);
+        }
+        String day = cell.getDay();
+        if (day != null) {
+            merge(days, day, delta);
+            merge(months, day.substring(0, 7), delta);
+        }
+    }
+
+    long sex(String sex) {
+        return sexes.getOrDefault(sex, 0L);
+    }
+
+    private UserStatsTotals copy() {
+        UserStatsTotals copy = new UserStatsTotals();
+        types.forEach((type, counts) -> copy.types.put(type, counts.clone()));
+        copy.sexes.putAll(sexes);
+        copy.months.putAll(months);
+        copy.days.putAll(days);
+        return copy;
+    }
+
+    /**
+     * 累加计数，归零的键直接移除，汇总中只保留非零的项
+     */
+    private static void merge(Map<String, Long> map, String key, long delta) {
+        map.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+}
@@ -0,0 +1,239 @@
+package com.zhu.utils;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 预编译的属性拷贝器
+ *
+ * 每个 (源类型, 目标类型) 只在第一次使用时通过反射分析一次属性，
+ * 然后用 LambdaMetafactory 把 getter/setter/无参构造器生成为函数式接口实例并缓存，
+ * 之后每次拷贝都是普通的接口调用，可以被 JIT 内联，不再经过反射。
+ *
+ * 拷贝规则与 Spring BeanUtils.copyProperties 一致：同名属性、源 getter 返回类型（含泛型）可赋值给目标 setter 参数类型，
+ * null 值同样会被拷贝。唯一的区别是 null 不会写入基本类型的目标属性（保留原值），BeanUtils 在这种情况下抛出异常。
+ *
+ * @author xiaozhu
+ */
+public final class BeanCopier<S, T> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * 拷贝器缓存：源类型 -> (目标类型 -> 拷贝器)
+     */
+    private static final ClassValue<Map<Class<?>, BeanCopier<?, ?>>> COPIERS = new ClassValue<>() {
+        @Override
+        protected Map<Class<?>, BeanCopier<?, ?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Supplier<T> constructor;
+
+    private final Function<Object, Object>[] getters;
+
+    private final BiConsumer<Object, Object>[] setters;
+
+    private final boolean[] primitiveTargets;
+
+    @SuppressWarnings("unchecked")
+    private BeanCopier(Supplier<T> constructor, List<Function<Object, Object>> getters,
+                       List<BiConsumer<Object, Object>> setters, List<Boolean> primitiveTargets) {
+        this.constructor = constructor;
+        this.getters = getters.toArray(new Function[0]);
+        this.setters = setters.toArray(new BiConsumer[0]);
+        this.primitiveTargets = new boolean[primitiveTargets.size()];
+        for (int i = 0; i < this.primitiveTargets.length; i++) {
+            this.primitiveTargets[i] = primitiveTargets.get(i);
+        }
+    }
+
+    /**
+     * 获取（必要时生成）指定源类型到目标类型的拷贝器
+     *
+     * @param sourceClass 源类型
+     * @param targetClass 目标类型
+     * @return 拷贝器
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> BeanCopier<S, T> of(Class<S> sourceClass, Class<T> targetClass) {
+        return (BeanCopier<S, T>) COPIERS.get(sourceClass)
+                .computeIfAbsent(targetClass, target -> create(sourceClass, target));
+    }
+
+    /**
+     * 创建目标对象并拷贝属性
+     *
+     * @param source 源对象
+     * @return 目标对象
+     */
+    public T copy(S source) {
+        T target = constructor.get();
+        copyProperties(source, target);
+        return target;
+    }
+
+    /**
+     * 拷贝属性到已有的目标对象
+     *
+     * @param source 源对象
+     * @param target 目标对象
+     */
+    public void copyProperties(S source, T target) {
+        for (int i = 0; i < getters.length; i++) {
+            Object value = getters[i].apply(source);
+            if (value != null || !primitiveTargets[i]) {
+                setters[i].accept(target, value);
+            }
+        }
+    }
+
+    // ==================== 生成拷贝器 ====================
+
+    private static <S, T> BeanCopier<S, T> create(Class<S> sourceClass, Class<T> targetClass) {
+        List<Function<Object, Object>> getters = new ArrayList<>();
+        List<BiConsumer<Object, Object>> setters = new ArrayList<>();
+        List<Boolean> primitiveTargets = new ArrayList<>();
+
+        for (PropertyDescriptor targetPd : BeanUtils.getPropertyDescriptors(targetClass)) {
+            Method writeMethod = targetPd.getWriteMethod();
+            if (writeMethod == null) {
+                continue;
+            }
+            PropertyDescriptor sourcePd = BeanUtils.getPropertyDescriptor(sourceClass, targetPd.getName());
+            if (sourcePd == null || sourcePd.getReadMethod() == null) {
+                continue;
+            }
+            Method readMethod = sourcePd.getReadMethod();
+            Class<?> targetType = writeMethod.getParameterTypes()[0];
+            if (!isAssignable(readMethod, writeMethod)) {
+                continue;
+            }
+            getters.add(getter(readMethod));
+            setters.add(setter(writeMethod));
+            primitiveTargets.add(targetType.isPrimitive());
+        }
+        return new BeanCopier<>(constructor(targetClass), getters, setters, primitiveTargets);
+    }
+
+    /**
+     * 与 BeanUtils.copyProperties 相同：泛型可解析时按泛型判断（List&lt;String&gt; 不拷贝到 List&lt;Integer&gt;），否则按原始类型
+     */
+    private static boolean isAssignable(Method readMethod, Method writeMethod) {
+        ResolvableType sourceType = ResolvableType.forMethodReturnType(readMethod);
+        ResolvableType targetType = ResolvableType.forMethodParameter(writeMethod, 0);
+        if (sourceType.hasUnresolvableGenerics() || targetType.hasUnresolvableGenerics()) {
+            return ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType());
+        }
+        return targetType.isAssignableFrom(sourceType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> constructor(Class<T> targetClass) {
+        try {
+            MethodHandle handle = lookup(targetClass).findConstructor(targetClass, MethodType.methodType(void.class));
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        handle,
+                        MethodType.methodType(targetClass));
+                return (Supplier<T>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                return () -> {
+                    try {
+                        return (T) handle.invoke();
+                    } catch (Throwable ex) {
+                        throw new IllegalStateException("创建对象失败: " + targetClass.getName(), ex);
+                    }
+                };
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("目标类型缺少可访问的无参构造器: " + targetClass.getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Method readMethod) {
+        MethodHandle handle = unreflect(readMethod);
+        try {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(ClassUtils.resolvePrimitiveIfNecessary(readMethod.getReturnType()),
+                            readMethod.getDeclaringClass()));
+            return (Function<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            // 无法生成 lambda（如方法所在类对当前类不可见）时退回到 MethodHandle 调用
+            MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+            return source -> {
+                try {
+                    return generic.invokeExact(source);
+                } catch (Throwable ex) {
+                    throw new IllegalStateException("读取属性失败: " + readMethod, ex);
+                }
+            };
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(Method writeMethod) {
+        MethodHandle handle = unreflect(writeMethod);
+        try {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(void.class, writeMethod.getDeclaringClass(),
+                            ClassUtils.resolvePrimitiveIfNecessary(writeMethod.getParameterTypes()[0])));
+            return (BiConsumer<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            // 无法生成 lambda（如方法所在类对当前类不可见）时退回到 MethodHandle 调用
+            MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (target, value) -> {
+                try {
+                    generic.invokeExact(target, value);
+                } catch (Throwable ex) {
+                    throw new IllegalStateException("写入属性失败: " + writeMethod, ex);
+                }
+            };
+        }
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            return lookup(method.getDeclaringClass()).unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("无法访问属性方法: " + method, e);
+        }
+    }
+
+    /**
+     * 非 public 的类需要在其所在包内获取 Lookup 才能访问
+     */
+    private static MethodHandles.Lookup lookup(Class<?> type) throws IllegalAccessException {
+        if (Modifier.isPublic(type.getModifiers())) {
+            return LOOKUP;
+        }
+        return MethodHandles.privateLookupIn(type, LOOKUP);
+    }
+}
@@ -1,12 +1,11 @@
 package com.zhu.utils;
 
-import org.springframework.beans.BeanUtils;
-
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 拷贝工具类
+ * 基于预编译的 BeanCopier，每个 (源类型, 目标类型) 只分析一次属性，之后不再经过反射
  * @author xiaozhu
  * @date 2022年05月22日 16:25                          $
  */
@@ -25,17 +24,13 @@ public class BeanCopyUtils {
      * @param clazz
      * @return V
      */
+    @SuppressWarnings("unchecked")
     public static <V> V copyBean(Object source, Class<V> clazz) {
-
-        V result = null;
-        try {
-            result = clazz.newInstance();
-            BeanUtils.copyProperties(source, result);
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (source == null) {
+            return null;
         }
-
-        return result;
+        BeanCopier<Object, V> copier = BeanCopier.of((Class<Object>) source.getClass(), clazz);
+        return copier.copy(source);
     }
 
     /*
@@ -47,14 +42,25 @@ public class BeanCopyUtils {
      * @return java.util.List<V>
      */
     //第一个<O, V>是方法使用泛型, List<V>是返回类型
+    @SuppressWarnings("unchecked")
     public static <O, V> List<V> copyBeanList(List<O> list, Class<V> clazz){
 
-
-
-        return list.stream()
-                //先将的单个转化为拷贝的，然后直接收集程集合
-                .map(o -> copyBean(o, clazz))
-                .collect(Collectors.toList());
+        List<V> result = new ArrayList<>(list.size());
+        // 同一个列表中的元素通常是同一类型，复用上一次取到的拷贝器
+        Class<?> lastClass = null;
+        BeanCopier<Object, V> copier = null;
+        for (O o : list) {
+            if (o == null) {
+                result.add(null);
+                continue;
+            }
+            if (o.getClass() != lastClass) {
+                lastClass = o.getClass();
+                copier = BeanCopier.of((Class<Object>) lastClass, clazz);
+            }
+            result.add(copier.copy(o));
+        }
+        return result;
 
     }
 
@@ -0,0 +1,70 @@
+package com.zhu.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * 游标分页工具类
+ * 将 (create_time, id) 编码为不透明的游标字符串，客户端只需原样回传
+ *
+ * @author xiaozhu
+ */
+public class CursorUtils {
+
+    private static final String VERSION = "v1";
+
+    private CursorUtils() {
+    }
+
+    /**
+     * 编码游标
+     *
+     * @param createTime 最后一条记录的创建时间（可为空）
+     * @param id 最后一条记录的ID
+     * @return 游标字符串
+     */
+    public static String encode(Date createTime, Long id) {
+        String raw = VERSION + ":" + (createTime == null ? "" : createTime.getTime()) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     *
+     * @param cursor 游标字符串
+     * @return 游标位置，空字符串表示第一页返回 null
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public static SeekPosition decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", -1);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("游标无效");
+            }
+            Date createTime = parts[1].isEmpty() ? null : new Date(Long.parseLong(parts[1]));
+            return new SeekPosition(createTime, Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("游标无效", e);
+        }
+    }
+
+    /**
+     * 游标位置：上一页最后一条记录的排序键
+     */
+    @Data
+    @AllArgsConstructor
+    public static class SeekPosition {
+
+        private Date createTime;
+
+        private Long id;
+    }
+}
@@ -1,5 +1,6 @@
 package com.zhu.utils;
 
+import com.zhu.common.dict.DictSnapshot;
 import com.zhu.service.DictService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -14,6 +15,26 @@ import org.springframework.stereotype.Component;
 @Component
 public class DictUtils {
 
+    /**
+     * 用户类型字典
+     */
+    public static final String USER_TYPE = "sys_user_type";
+
+    /**
+     * 系统状态字典
+     */
+    public static final String NORMAL_DISABLE = "sys_normal_disable";
+
+    /**
+     * 用户性别字典
+     */
+    public static final String USER_SEX = "sys_user_sex";
+
+    /**
+     * 查询不到字典标签时的默认值
+     */
+    public static final String UNKNOWN = "未知";
+
     private static DictService dictService;
 
     @Autowired
@@ -31,7 +52,7 @@ public class DictUtils {
      * @return 用户类型描述
      */
     public static String getTypeDesc(String type) {
-        return getDictLabel("sys_user_type", type, "未知");
+        return snapshot().labels(USER_TYPE).get(type, UNKNOWN);
     }
 
     /**
@@ -41,7 +62,7 @@ public class DictUtils {
      * @return 状态描述
      */
     public static String getStatusDesc(String status) {
-        return getDictLabel("sys_normal_disable", status, "未知");
+        return snapshot().labels(NORMAL_DISABLE).get(status, UNKNOWN);
     }
 
     /**
@@ -51,7 +72,7 @@ public class DictUtils {
      * @return 性别描述
      */
     public static String getSexDesc(String sex) {
-        return getDictLabel("sys_user_sex", sex, "未知");
+        return snapshot().labels(USER_SEX).get(sex, UNKNOWN);
     }
 
     /**
@@ -76,6 +97,21 @@ public class DictUtils {
         }
     }
 
+    /**
+     * 获取字典快照
+     * 批量转换时应先取一次快照，再按类型取出标签表逐行查找，避免每行都查询缓存
+     *
+     * @return 字典快照，加载失败时返回空快照
+     */
+    public static DictSnapshot snapshot() {
+        try {
+            return dictService != null ? dictService.getSnapshot() : DictSnapshot.EMPTY;
+        } catch (Exception e) {
+            // 如果加载失败，返回空快照（所有标签取默认值）
+            return DictSnapshot.EMPTY;
+        }
+    }
+
     /**
      * 刷新字典缓存
      */
@@ -1,6 +1,7 @@
 package com.zhu.utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
@@ -19,6 +20,12 @@ public class JwtUtil {
     // 设置秘钥明文（注意：生产环境应使用更强的密钥，至少32字节）
     public static final String JWT_KEY = "sangeng_secret_key_for_jwt_token_generation_32bytes";
 
+    // 密钥和解析器都是不可变、线程安全的，只创建一次
+    private static final SecretKey SECRET_KEY = Keys.hmacShaKeyFor(JWT_KEY.getBytes(StandardCharsets.UTF_8));
+    private static final JwtParser PARSER = Jwts.parser()
+            .verifyWith(SECRET_KEY)        // 设置签名密钥
+            .build();
+
     public static String getUUID() {
         return UUID.randomUUID().toString().replaceAll("-", "");
     }
@@ -50,7 +57,6 @@ public class JwtUtil {
      * @return JWT token
      */
     public static String createJWT(String id, String subject, Long ttlMillis) {
-        SecretKey secretKey = generalKey();
         long nowMillis = System.currentTimeMillis();
         Date now = new Date(nowMillis);
         
@@ -66,7 +72,7 @@ public class JwtUtil {
                 .issuer("sg")              // 签发者
                 .issuedAt(now)             // 签发时间
                 .expiration(expDate)       // 过期时间
-                .signWith(secretKey)       // 使用密钥签名（自动使用HS256算法）
+                .signWith(SECRET_KEY)      // 使用密钥签名（自动使用HS256算法）
                 .compact();
     }
 
@@ -75,8 +81,8 @@ public class JwtUtil {
      * @return SecretKey
      */
     public static SecretKey generalKey() {
-        // JJWT 0.12.x 推荐使用 Keys.hmacShaKeyFor() 生成密钥
-        return Keys.hmacShaKeyFor(JWT_KEY.getBytes(StandardCharsets.UTF_8));
+        // JJWT 0.12.x 推荐使用 Keys.hmacShaKeyFor() 生成密钥（类加载时生成一次）
+        return SECRET_KEY;
     }
 
     /**
@@ -86,10 +92,7 @@ public class JwtUtil {
      * @throws Exception 解析异常
      */
     public static Claims parseJWT(String jwt) throws Exception {
-        SecretKey secretKey = generalKey();
-        return Jwts.parser()
-                .verifyWith(secretKey)     // 设置签名密钥
-                .build()
+        return PARSER
                 .parseSignedClaims(jwt)    // 解析 JWT
                 .getPayload();             // 获取 payload（即 Claims）
     }
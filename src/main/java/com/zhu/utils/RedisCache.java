@@ -1,14 +1,36 @@
 package com.zhu.utils;
 
+import com.zhu.cache.RedisNearCache;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.BoundSetOperations;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 
 
@@ -18,12 +40,75 @@ import java.util.concurrent.TimeUnit;
  * @author xiaozhu
  * @date 2022年05月22日 16:25                          $
  */
+@Slf4j
 @Component
 public class RedisCache
 {
+    /**
+     * SCAN 每批的建议数量
+     */
+    private static final long DEFAULT_SCAN_COUNT = 1000;
+
+    /**
+     * 加载锁的键后缀
+     */
+    private static final String LOAD_LOCK_SUFFIX = ":loading";
+
+    /**
+     * 等待其他节点加载时的轮询间隔（毫秒）
+     */
+    private static final long LOAD_POLL_MILLIS = 20;
+
+    /**
+     * 键不存在时以 ARGV[1] 为值、ARGV[2] 毫秒为有效期设置 KEYS[1]，成功返回 1
+     */
+    private static final RedisScript<Long> TRY_LOCK_SCRIPT = RedisScript.of(
+            "if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then return 1 else return 0 end",
+            Long.class);
+
+    /**
+     * 值等于 ARGV[1] 时删除 KEYS[1]
+     */
+    private static final RedisScript<Long> COMPARE_AND_DELETE_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
     @Autowired
     public RedisTemplate redisTemplate;
 
+    /**
+     * 近端缓存（cache.near.enabled=true 时存在），配置的前缀下的键在本地保存反序列化后的值
+     */
+    @Autowired(required = false)
+    private RedisNearCache nearCache;
+
+    @Value("${cache.load.lock-timeout-ms:10000}")
+    private long loadLockTimeoutMs = 10000;
+
+    @Value("${cache.load.wait-ms:3000}")
+    private long loadWaitMs = 3000;
+
+    @Value("${cache.load.ttl-jitter:0.1}")
+    private double ttlJitter = 0.1;
+
+    @Value("${cache.load.early-refresh-beta:1.0}")
+    private double earlyRefreshBeta = 1.0;
+
+    /**
+     * 本进程内正在加载的键，同一个键只有一个线程查询数据源
+     */
+    private final ConcurrentMap<String, CompletableFuture<LoadedValue>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * 提前刷新使用的后台线程，队列满时放弃本次刷新（值过期后由请求线程加载）
+     */
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(1, 4, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(256), runnable -> {
+                Thread thread = new Thread(runnable, "cache-refresh");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
     /**
      * 缓存基本的对象，Integer、String、实体类等
      *
@@ -33,6 +118,7 @@ public class RedisCache
     public <T> void setCacheObject(final String key, final T value)
     {
         redisTemplate.opsForValue().set(key, value);
+        invalidateNear(key);
     }
 
     /**
@@ -46,6 +132,21 @@ public class RedisCache
     public <T> void setCacheObject(final String key, final T value, final Integer timeout, final TimeUnit timeUnit)
     {
         redisTemplate.opsForValue().set(key, value, timeout, timeUnit);
+        invalidateNear(key);
+    }
+
+    /**
+     * 键不存在时才缓存（SET NX）
+     *
+     * @param key 缓存的键值
+     * @param value 缓存的值
+     * @return true=已写入；false=键已存在
+     */
+    public <T> boolean setCacheObjectIfAbsent(final String key, final T value)
+    {
+        Boolean set = redisTemplate.opsForValue().setIfAbsent(key, value);
+        invalidateNear(key);
+        return Boolean.TRUE.equals(set);
     }
 
     /**
@@ -75,16 +176,91 @@ public class RedisCache
 
     /**
      * 获得缓存的基本对象。
+     * 键在近端缓存的前缀下时优先返回本地保存的值，返回的对象不能修改
      *
      * @param key 缓存键值
      * @return 缓存键值对应的数据
      */
+    @SuppressWarnings("unchecked")
     public <T> T getCacheObject(final String key)
     {
+        if (nearCache != null && nearCache.accepts(key)) {
+            return (T) nearCache.get(key, redisTemplate.opsForValue()::get);
+        }
         ValueOperations<String, T> operation = redisTemplate.opsForValue();
         return operation.get(key);
     }
 
+    /**
+     * 批量获得缓存的基本对象（MGET，一次往返）
+     *
+     * @param keys 缓存键值集合
+     * @return 与键顺序一致的值列表，不存在的键对应 null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getMulti(final Collection<String> keys)
+    {
+        if (keys == null || keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        ValueOperations<String, T> operation = redisTemplate.opsForValue();
+        if (nearCache != null) {
+            List<String> keyList = new ArrayList<>(keys);
+            return (List<T>) nearCache.getMulti(keyList, misses -> (List<Object>) operation.multiGet(misses));
+        }
+        return operation.multiGet(keys);
+    }
+
+    /**
+     * 批量缓存基本对象，使用相同的有效时间（管道，一次往返）
+     *
+     * @param values 缓存的键值和值
+     * @param timeout 时间，小于等于 0 表示不过期
+     * @param timeUnit 时间颗粒度
+     */
+    public void setMulti(final Map<String, ?> values, final long timeout, final TimeUnit timeUnit)
+    {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        Duration ttl = timeout > 0 ? Duration.ofMillis(timeUnit.toMillis(timeout)) : null;
+        List<CacheEntry> entries = new ArrayList<>(values.size());
+        values.forEach((key, value) -> entries.add(new CacheEntry(key, value, ttl)));
+        setMulti(entries);
+    }
+
+    /**
+     * 批量缓存基本对象，每个键使用各自的有效时间（管道，一次往返）
+     *
+     * @param entries 缓存项，ttl 为 null 表示不过期
+     */
+    public void setMulti(final Collection<CacheEntry> entries)
+    {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>()
+        {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations)
+            {
+                ValueOperations<K, V> valueOperations = operations.opsForValue();
+                for (CacheEntry entry : entries) {
+                    if (entry.ttl() == null) {
+                        valueOperations.set((K) entry.key(), (V) entry.value());
+                    } else {
+                        valueOperations.set((K) entry.key(), (V) entry.value(), entry.ttl());
+                    }
+                }
+                return null;
+            }
+        });
+        if (nearCache != null) {
+            entries.forEach(entry -> nearCache.invalidate(entry.key()));
+        }
+    }
+
     /**
      * 删除单个对象
      *
@@ -92,7 +268,9 @@ public class RedisCache
      */
     public boolean deleteObject(final String key)
     {
-        return redisTemplate.delete(key);
+        boolean deleted = redisTemplate.delete(key);
+        invalidateNear(key);
+        return deleted;
     }
 
     /**
@@ -101,9 +279,59 @@ public class RedisCache
      * @param collection 多个对象
      * @return
      */
+    @SuppressWarnings("unchecked")
     public long deleteObject(final Collection collection)
     {
-        return redisTemplate.delete(collection);
+        long count = redisTemplate.delete(collection);
+        if (nearCache != null) {
+            nearCache.invalidateAll((Collection<String>) collection);
+        }
+        return count;
+    }
+
+    /**
+     * 批量删除对象（UNLINK，一次往返，值在 Redis 后台线程中释放）
+     *
+     * @param keys 缓存键值集合
+     * @return 删除的键个数
+     */
+    public long deleteMulti(final Collection<String> keys)
+    {
+        if (keys == null || keys.isEmpty()) {
+            return 0;
+        }
+        Long count = redisTemplate.unlink(keys);
+        if (nearCache != null) {
+            nearCache.invalidateAll(keys);
+        }
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 执行 Lua 脚本（原子执行复合操作）
+     *
+     * @param script 脚本
+     * @param keys 脚本中的 KEYS
+     * @param args 脚本中的 ARGV（按字符串传递，不经过值序列化）
+     * @return 脚本返回值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(final RedisScript<T> script, final List<String> keys, final String... args)
+    {
+        return (T) redisTemplate.execute(script, RedisSerializer.string(), RedisSerializer.string(), keys, (Object[]) args);
+    }
+
+    /**
+     * 值等于期望值时才删除（如释放自己持有的锁，避免误删锁过期后被其他节点获得的锁）
+     *
+     * @param key 缓存键值
+     * @param expected 期望值（按字符串比较）
+     * @return true=已删除；false=值不匹配或键不存在
+     */
+    public boolean compareAndDelete(final String key, final String expected)
+    {
+        Long deleted = execute(COMPARE_AND_DELETE_SCRIPT, List.of(key), expected);
+        return deleted != null && deleted > 0;
     }
 
     /**
@@ -233,13 +461,278 @@ public class RedisCache
     }
 
     /**
-     * 获得缓存的基本对象列表
+     * 获取缓存，未命中时调用 loader 加载并写入缓存（防止缓存击穿）
+     *
+     * 1. 本进程内同一个键同时只有一个线程加载，其余线程等待其结果
+     * 2. 跨节点通过短期 Redis 锁互斥，未抢到锁的节点等待锁持有者写入缓存，超时后自己加载
+     * 3. 过期前按概率提前在后台刷新（加载越慢、越接近过期，刷新概率越大），避免热点键同时过期
+     * 4. 有效时间随机增加一定比例，分散同一批键的过期时间
+     *
+     * loader 返回 null 时同样缓存，避免反复查询不存在的数据
+     *
+     * @param key 缓存键值
+     * @param ttl 有效时间
+     * @param loader 数据源加载函数
+     * @return 缓存的值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrLoad(final String key, final Duration ttl, final Supplier<T> loader)
+    {
+        LoadedValue cached = getLoaded(key);
+        if (cached != null) {
+            if (shouldRefreshEarly(cached)) {
+                refreshAsync(key, ttl, loader);
+            }
+            return (T) cached.getValue();
+        }
+        return (T) loadSingleFlight(key, ttl, loader).getValue();
+    }
+
+    /**
+     * 获得匹配的键列表
+     * 基于 SCAN 分批遍历，不使用会阻塞 Redis 的 KEYS 命令；键很多时请直接使用 {@link #scan}
+     * SCAN 可能重复返回同一个键，结果按首次出现的顺序去重
      *
      * @param pattern 字符串前缀
-     * @return 对象列表
+     * @return 不重复的键
      */
     public Collection<String> keys(final String pattern)
     {
-        return redisTemplate.keys(pattern);
+        Set<String> keys = new LinkedHashSet<>();
+        try (Cursor<String> cursor = scan(pattern, DEFAULT_SCAN_COUNT)) {
+            cursor.forEachRemaining(keys::add);
+        }
+        return keys;
+    }
+
+    /**
+     * 以游标方式遍历匹配的键（SCAN），按需分批从 Redis 拉取
+     * 遍历期间新增或删除的键可能不会被返回，也可能重复返回；使用完毕后需要关闭游标
+     *
+     * @param pattern 匹配模式，如 user:id:*
+     * @param count 每批的建议数量
+     * @return 键游标
+     */
+    public Cursor<String> scan(final String pattern, final long count)
+    {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(count).build();
+        return redisTemplate.scan(options);
+    }
+
+    // ==================== 防击穿加载 ====================
+
+    private LoadedValue loadSingleFlight(String key, Duration ttl, Supplier<?> loader)
+    {
+        CompletableFuture<LoadedValue> created = new CompletableFuture<>();
+        CompletableFuture<LoadedValue> existing = loading.putIfAbsent(key, created);
+        if (existing != null) {
+            LoadedValue value = await(existing);
+            // 等到的是未抢到锁的后台刷新，没有结果，自己加载
+            return value != null ? value : loadWithLock(key, ttl, loader);
+        }
+        try {
+            LoadedValue value = loadWithLock(key, ttl, loader);
+            created.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, created);
+        }
+    }
+
+    private LoadedValue loadWithLock(String key, Duration ttl, Supplier<?> loader)
+    {
+        String lockKey = key + LOAD_LOCK_SUFFIX;
+        String token = UUID.randomUUID().toString();
+        if (tryLock(lockKey, token)) {
+            try {
+                // 拿到锁后再查一次：其他节点可能刚刚写入
+                LoadedValue cached = getLoaded(key);
+                return cached != null ? cached : loadAndStore(key, ttl, loader);
+            } finally {
+                unlock(lockKey, token);
+            }
+        }
+        // 其他节点正在加载：等待其写入缓存，超时后自己加载
+        long deadline = System.currentTimeMillis() + loadWaitMs;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LOAD_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            LoadedValue cached = getLoaded(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return loadAndStore(key, ttl, loader);
+    }
+
+    /**
+     * 后台提前刷新：本进程内已在加载或其他节点持有锁时跳过
+     */
+    private void refreshAsync(String key, Duration ttl, Supplier<?> loader)
+    {
+        CompletableFuture<LoadedValue> created = new CompletableFuture<>();
+        if (loading.putIfAbsent(key, created) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                String lockKey = key + LOAD_LOCK_SUFFIX;
+                String token = UUID.randomUUID().toString();
+                try {
+                    if (tryLock(lockKey, token)) {
+                        try {
+                            created.complete(loadAndStore(key, ttl, loader));
+                        } finally {
+                            unlock(lockKey, token);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("缓存提前刷新失败: key={}", key, e);
+                } finally {
+                    created.complete(null);
+                    loading.remove(key, created);
+                }
+            });
+        } catch (RuntimeException e) {
+            loading.remove(key, created);
+        }
+    }
+
+    private LoadedValue loadAndStore(String key, Duration ttl, Supplier<?> loader)
+    {
+        long start = System.currentTimeMillis();
+        Object value = loader.get();
+        long now = System.currentTimeMillis();
+        long ttlMillis = jitter(ttl.toMillis());
+        LoadedValue loaded = new LoadedValue(value, now - start, now + ttlMillis);
+        try {
+            redisTemplate.opsForValue().set(key, loaded, ttlMillis, TimeUnit.MILLISECONDS);
+            invalidateNear(key);
+        } catch (Exception e) {
+            log.warn("写入缓存失败: key={}", key, e);
+        }
+        return loaded;
+    }
+
+    /**
+     * 概率提前刷新（XFetch）：now - delta * beta * ln(rand) >= expireAt 时刷新
+     */
+    private boolean shouldRefreshEarly(LoadedValue cached)
+    {
+        if (cached.getDelta() <= 0 || earlyRefreshBeta <= 0) {
+            return false;
+        }
+        double random = 1D - ThreadLocalRandom.current().nextDouble();
+        long gap = (long) (-cached.getDelta() * earlyRefreshBeta * Math.log(random));
+        return System.currentTimeMillis() + gap >= cached.getExpireAt();
+    }
+
+    private long jitter(long ttlMillis)
+    {
+        if (ttlJitter <= 0) {
+            return ttlMillis;
+        }
+        return ttlMillis + (long) (ttlMillis * ttlJitter * ThreadLocalRandom.current().nextDouble());
+    }
+
+    private LoadedValue getLoaded(String key)
+    {
+        try {
+            Object value = getCacheObject(key);
+            return value instanceof LoadedValue loaded ? loaded : null;
+        } catch (Exception e) {
+            log.warn("读取缓存失败，直接加载: key={}", key, e);
+            return null;
+        }
+    }
+
+    private boolean tryLock(String lockKey, String token)
+    {
+        try {
+            Long locked = execute(TRY_LOCK_SCRIPT, List.of(lockKey), token, String.valueOf(loadLockTimeoutMs));
+            return locked != null && locked > 0;
+        } catch (Exception e) {
+            // Redis 不可用时不再跨节点互斥，本进程内仍然只有一个线程加载
+            log.warn("获取加载锁失败: key={}", lockKey, e);
+            return true;
+        }
+    }
+
+    private void unlock(String lockKey, String token)
+    {
+        try {
+            compareAndDelete(lockKey, token);
+        } catch (Exception e) {
+            log.warn("释放加载锁失败，依赖过期时间兜底: key={}", lockKey, e);
+        }
+    }
+
+    /**
+     * 本节点写入或删除后立即删除近端缓存中的值（其他节点通过失效消息删除）
+     */
+    private void invalidateNear(String key)
+    {
+        if (nearCache != null) {
+            nearCache.invalidate(key);
+        }
+    }
+
+    private LoadedValue await(CompletableFuture<LoadedValue> future)
+    {
+        try {
+            return future.get(loadLockTimeoutMs + loadWaitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("等待缓存加载超时", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待缓存加载被中断", e);
+        }
+    }
+
+    /**
+     * getOrLoad 写入的缓存值，记录加载耗时和过期时间用于提前刷新
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LoadedValue
+    {
+        /**
+         * 加载得到的值
+         */
+        private Object value;
+
+        /**
+         * 加载耗时（毫秒）
+         */
+        private long delta;
+
+        /**
+         * 过期时间戳（毫秒）
+         */
+        private long expireAt;
+    }
+
+    /**
+     * 批量缓存项
+     *
+     * @param key 缓存的键值
+     * @param value 缓存的值
+     * @param ttl 有效时间，null 表示不过期
+     */
+    public record CacheEntry(String key, Object value, Duration ttl)
+    {
     }
 }
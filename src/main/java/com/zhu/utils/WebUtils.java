@@ -5,6 +5,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 
 public class WebUtils
 {
@@ -39,4 +40,17 @@ public class WebUtils
 //        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
 //        response.setCharacterEncoding("utf-8");
     }
+
+    /**
+     * 设置 Excel 下载响应头
+     *
+     * @param filename 文件名（含扩展名）
+     * @param response 响应对象
+     */
+    public static void setExcelDownloadHeader(String filename, HttpServletResponse response) {
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setCharacterEncoding("utf-8");
+        String fname = URLEncoder.encode(filename, StandardCharsets.UTF_8).replace("+", "%20");
+        response.setHeader("Content-disposition", "attachment;filename*=utf-8''" + fname);
+    }
 }
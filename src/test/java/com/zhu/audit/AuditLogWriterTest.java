@@ -0,0 +1,92 @@
+package com.zhu.audit;
+
+import com.zhu.common.result.ResponseResult;
+import com.zhu.domain.dto.userdto.UserAddDTO;
+import com.zhu.domain.entity.OperLog;
+import com.zhu.mapper.OperLogMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author xiaozhu
+ */
+public class AuditLogWriterTest {
+
+    private final List<OperLog> logs = new CopyOnWriteArrayList<>();
+
+    private AuditLogWriter writer;
+
+    @BeforeEach
+    public void setUp() {
+        OperLogMapper mapper = mock(OperLogMapper.class);
+        doAnswer(invocation -> {
+            logs.addAll(invocation.getArgument(0));
+            return logs.size();
+        }).when(mapper).insertBatch(any());
+
+        writer = new AuditLogWriter();
+        ReflectionTestUtils.setField(writer, "operLogMapper", mapper);
+        ReflectionTestUtils.setField(writer, "enabled", true);
+        ReflectionTestUtils.setField(writer, "bufferSize", 16);
+        ReflectionTestUtils.setField(writer, "batchSize", 10);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(writer, "maxPayloadLength", 2000);
+        ReflectionTestUtils.setField(writer, "maxListItems", 20);
+    }
+
+    @Test
+    public void masksSensitiveFields() throws InterruptedException {
+        UserAddDTO dto = new UserAddDTO();
+        dto.setUserName("zhangsan");
+        dto.setPassword("Secret123");
+        AuditEvent event = new AuditEvent();
+        event.setArgs(new Object[]{dto, Map.of("newPassword", "Secret456", "accessToken", "abc")});
+
+        writer.start();
+        writer.publish(event, 1D);
+        writer.stop();
+
+        assertEquals(1, logs.size());
+        String args = logs.get(0).getRequestArgs();
+        assertTrue(args.contains("zhangsan"));
+        assertTrue(args.contains("\"password\":\"******\""));
+        assertFalse(args.contains("Secret123"));
+        assertFalse(args.contains("Secret456"));
+        assertFalse(args.contains("abc"));
+    }
+
+    @Test
+    public void boundsLargeResultBeforeQueueing() throws InterruptedException {
+        List<Integer> all = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            all.add(i);
+        }
+        AuditEvent event = new AuditEvent();
+        event.setArgs(new Object[]{all});
+        event.setResult(ResponseResult.okResult(all));
+
+        writer.start();
+        writer.publish(event, 1D);
+        writer.stop();
+
+        // 队列中的事件只持有前 max-list-items 个元素
+        Map<?, ?> result = (Map<?, ?>) event.getResult();
+        assertEquals(20, ((List<?>) ((Map<?, ?>) result.get("data")).get("items")).size());
+        assertEquals(10_000, ((Map<?, ?>) result.get("data")).get("size"));
+        assertEquals(20, ((List<?>) ((Map<?, ?>) event.getArgs()[0]).get("items")).size());
+        assertTrue(logs.get(0).getResponse().contains("\"size\":10000"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.zhu.batch;
+
+import com.zhu.cache.UserCache;
+import com.zhu.domain.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author xiaozhu
+ */
+public class UserBatchLoaderTest {
+
+    private final List<Set<Long>> fetches = new CopyOnWriteArrayList<>();
+
+    private UserBatchLoader loader;
+
+    @BeforeEach
+    public void setUp() {
+        // 模拟缓存：ID 1 在本地缓存中，ID 1~9 存在，其余不存在
+        UserCache userCache = mock(UserCache.class);
+        doAnswer(invocation -> invocation.<Long>getArgument(0) == 1L ? user(1L) : null)
+                .when(userCache).getLocalById(anyLong());
+        doAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            fetches.add(new HashSet<>(ids));
+            Map<Long, User> users = new HashMap<>();
+            ids.stream().filter(id -> id < 10).forEach(id -> users.put(id, user(id)));
+            return users;
+        }).when(userCache).getByIds(any(), any());
+
+        loader = new UserBatchLoader();
+        ReflectionTestUtils.setField(loader, "userCache", userCache);
+        ReflectionTestUtils.setField(loader, "enabled", true);
+        ReflectionTestUtils.setField(loader, "windowMicros", 200_000L);
+        ReflectionTestUtils.setField(loader, "maxIds", 500);
+        ReflectionTestUtils.setField(loader, "queueSize", 100);
+        ReflectionTestUtils.setField(loader, "timeoutMs", 5000L);
+        loader.init();
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        loader.stop();
+    }
+
+    @Test
+    public void keepsRequestOrder() {
+        List<User> users = loader.loadMany(List.of(3L, 1L, 42L, 2L));
+
+        assertEquals(3L, users.get(0).getId());
+        assertEquals(1L, users.get(1).getId());
+        assertNull(users.get(2));
+        assertEquals(2L, users.get(3).getId());
+        // 本地缓存命中的ID不进入批量加载
+        assertEquals(List.of(Set.of(3L, 42L, 2L)), fetches);
+    }
+
+    @Test
+    public void coalescesConcurrentLoads() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<CompletableFuture<User>> futures = new ArrayList<>();
+        for (long id : new long[]{2L, 3L, 3L, 4L}) {
+            futures.add(CompletableFuture.supplyAsync(() -> loader.load(id), executor));
+        }
+        List<Long> ids = futures.stream().map(CompletableFuture::join).map(User::getId).toList();
+        executor.shutdown();
+
+        assertEquals(List.of(2L, 3L, 3L, 4L), ids);
+        assertEquals(List.of(Set.of(2L, 3L, 4L)), fetches);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,165 @@
+package com.zhu.batch;
+
+import com.zhu.domain.entity.User;
+import com.zhu.mapper.UserMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author xiaozhu
+ */
+public class UserInsertBatcherTest {
+
+    private final List<List<String>> statements = new CopyOnWriteArrayList<>();
+
+    private UserInsertBatcher batcher;
+
+    @BeforeEach
+    public void setUp() {
+        // 模拟唯一索引：已存在 "taken"，多行 INSERT 中有一行重复则整条失败
+        AtomicLong ids = new AtomicLong();
+        List<String> existing = new CopyOnWriteArrayList<>(List.of("taken"));
+        UserMapper userMapper = mock(UserMapper.class);
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            statements.add(users.stream().map(User::getUserName).toList());
+            for (User user : users) {
+                if (existing.contains(user.getUserName())) {
+                    throw new DuplicateKeyException("Duplicate entry '" + user.getUserName() + "'");
+                }
+            }
+            for (User user : users) {
+                existing.add(user.getUserName());
+                user.setId(ids.incrementAndGet());
+            }
+            return users.size();
+        }).when(userMapper).insertBatch(anyList());
+
+        batcher = new UserInsertBatcher();
+        ReflectionTestUtils.setField(batcher, "userMapper", userMapper);
+        ReflectionTestUtils.setField(batcher, "enabled", true);
+        ReflectionTestUtils.setField(batcher, "maxBatchSize", 100);
+        ReflectionTestUtils.setField(batcher, "maxWaitMs", 500L);
+        ReflectionTestUtils.setField(batcher, "queueSize", 100);
+        ReflectionTestUtils.setField(batcher, "timeoutMs", 5000L);
+        batcher.init();
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        batcher.stop();
+    }
+
+    @Test
+    public void coalescesConcurrentInserts() {
+        List<User> users = List.of(user("a1"), user("a2"), user("a3"), user("a4"));
+        List<Throwable> errors = insertConcurrently(users);
+
+        errors.forEach(error -> assertNull(error));
+        users.forEach(user -> assertNotNull(user.getId()));
+        assertEquals(1, statements.size());
+        assertEquals(4, statements.get(0).size());
+    }
+
+    @Test
+    public void duplicateOnlyFailsItsOwnRow() {
+        List<User> users = List.of(user("b1"), user("taken"), user("b2"), user("b2"));
+        List<Throwable> errors = insertConcurrently(users);
+
+        assertNull(errors.get(0));
+        assertInstanceOf(DuplicateKeyException.class, errors.get(1));
+        assertNotNull(users.get(0).getId());
+        assertNull(users.get(1).getId());
+        // 同批内重名的两条，只有一条成功
+        assertEquals(1, (errors.get(2) == null ? 1 : 0) + (errors.get(3) == null ? 1 : 0));
+    }
+
+    @Test
+    public void timedOutInsertIsNotWritten() throws InterruptedException {
+        // 合并窗口 500ms 长于等待超时 50ms：请求在写入前被取消
+        ReflectionTestUtils.setField(batcher, "timeoutMs", 50L);
+        User user = user("c1");
+
+        assertThrows(QueryTimeoutException.class, () -> batcher.insert(user));
+        batcher.stop();
+        assertTrue(statements.isEmpty());
+        assertNull(user.getId());
+    }
+
+    @Test
+    public void slowInsertIsAwaitedPastTimeout() throws InterruptedException {
+        // INSERT 执行期间超时：行会写入，调用方必须等到实际结果，而不是收到超时
+        batcher.stop();
+        UserMapper slowMapper = mock(UserMapper.class);
+        doAnswer(invocation -> {
+            Thread.sleep(300);
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(100L));
+            statements.add(users.stream().map(User::getUserName).toList());
+            return users.size();
+        }).when(slowMapper).insertBatch(anyList());
+        batcher = new UserInsertBatcher();
+        ReflectionTestUtils.setField(batcher, "userMapper", slowMapper);
+        ReflectionTestUtils.setField(batcher, "enabled", true);
+        ReflectionTestUtils.setField(batcher, "maxBatchSize", 100);
+        ReflectionTestUtils.setField(batcher, "maxWaitMs", 1L);
+        ReflectionTestUtils.setField(batcher, "queueSize", 100);
+        ReflectionTestUtils.setField(batcher, "timeoutMs", 50L);
+        batcher.init();
+        User user = user("d1");
+
+        long start = System.nanoTime();
+        batcher.insert(user);
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(250));
+        assertEquals(100L, user.getId());
+        assertEquals(List.of(List.of("d1")), statements);
+    }
+
+    private List<Throwable> insertConcurrently(List<User> users) {
+        ExecutorService executor = Executors.newFixedThreadPool(users.size());
+        List<CompletableFuture<Throwable>> futures = new ArrayList<>();
+        for (User user : users) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    batcher.insert(user);
+                    return null;
+                } catch (RuntimeException e) {
+                    return e;
+                }
+            }, executor));
+        }
+        List<Throwable> errors = futures.stream().map(CompletableFuture::join).toList();
+        executor.shutdown();
+        return errors;
+    }
+
+    private static User user(String userName) {
+        User user = new User();
+        user.setUserName(userName);
+        return user;
+    }
+}
@@ -0,0 +1,101 @@
+package com.zhu.cache;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * @author xiaozhu
+ */
+public class RedisNearCacheTest {
+
+    private final AtomicInteger remoteReads = new AtomicInteger();
+
+    @Test
+    public void servesHitsLocally() {
+        RedisNearCache nearCache = nearCache();
+        nearCache.onTrackingEnabled();
+
+        assertEquals("v1", nearCache.get("near:a", this::remote));
+        assertEquals("v1", nearCache.get("near:a", this::remote));
+        assertEquals(1, remoteReads.get());
+
+        // 前缀外的键和未开启跟踪时不使用本地缓存
+        List<Object> values = nearCache.getMulti(List.of("near:a", "other:b"),
+                keys -> keys.stream().map(this::remote).toList());
+        assertEquals(List.of("v1", "v1"), values);
+        assertEquals(2, remoteReads.get());
+
+        nearCache.onInvalidate(List.of("near:a"));
+        assertEquals("v1", nearCache.get("near:a", this::remote));
+        assertEquals(3, remoteReads.get());
+    }
+
+    @Test
+    public void invalidationDuringReadIsNotOverwritten() {
+        RedisNearCache nearCache = nearCache();
+        nearCache.onTrackingEnabled();
+
+        // 读取 Redis 的过程中其他节点修改了该键：读到的旧值只返回给本次调用，不放入本地缓存
+        assertEquals("old", nearCache.get("near:a", key -> {
+            nearCache.onInvalidate(List.of(key));
+            return "old";
+        }));
+        assertEquals("v1", nearCache.get("near:a", this::remote));
+        assertEquals(1, remoteReads.get());
+    }
+
+    @Test
+    public void followsChangesFromOtherConnections() throws InterruptedException {
+        assumeTrue(redisAvailable(), "本地没有可用的 redis-server");
+        RedisNearCache nearCache = nearCache();
+        nearCache.start(RedisURI.create("redis://127.0.0.1:6379"));
+        RedisClient client = RedisClient.create("redis://127.0.0.1:6379");
+        try (StatefulRedisConnection<String, String> writer = client.connect()) {
+            writer.sync().set("near:it", "1");
+            assertEquals("1", nearCache.get("near:it", writer.sync()::get));
+            assertEquals("1", nearCache.get("near:it", key -> "not-from-local"));
+
+            writer.sync().set("near:it", "2");
+            Object value = null;
+            for (int i = 0; i < 100 && !"2".equals(value); i++) {
+                Thread.sleep(10);
+                value = nearCache.get("near:it", writer.sync()::get);
+            }
+            assertEquals("2", value);
+            writer.sync().del("near:it");
+        } finally {
+            nearCache.stop();
+            client.shutdown();
+        }
+    }
+
+    private RedisNearCache nearCache() {
+        return new RedisNearCache(List.of("near:"), 100, Duration.ofMinutes(1));
+    }
+
+    private Object remote(String key) {
+        remoteReads.incrementAndGet();
+        return "v1";
+    }
+
+    private static boolean redisAvailable() {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("127.0.0.1", 6379), 200);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.zhu.config;
+
+import com.zhu.domain.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author xiaozhu
+ */
+public class JsonbRedisSerializerTest {
+
+    private final JsonbRedisSerializer<Object> serializer = new JsonbRedisSerializer<>(Object.class, 512, null);
+
+    @Test
+    public void roundTripsTypedValues() {
+        User user = user(1L);
+        byte[] bytes = serializer.serialize(user);
+
+        assertEquals(JsonbRedisSerializer.FORMAT_JSONB, bytes[0]);
+        User read = assertInstanceOf(User.class, serializer.deserialize(bytes));
+        assertEquals(user, read);
+        assertEquals(123L, serializer.deserialize(serializer.serialize(123L)));
+        // 类名通过注册表编号写入，不再以文本出现
+        assertFalse(new String(bytes, StandardCharsets.ISO_8859_1).contains(User.class.getName()));
+        assertTrue(bytes.length < new FastJsonRedisSerializer<>(Object.class).serialize(user).length);
+    }
+
+    @Test
+    public void compressesLargeValues() {
+        List<User> users = new ArrayList<>();
+        for (long i = 0; i < 100; i++) {
+            users.add(user(i));
+        }
+        byte[] bytes = serializer.serialize(users);
+
+        assertEquals(JsonbRedisSerializer.FORMAT_JSONB_LZ4, bytes[0]);
+        List<?> read = assertInstanceOf(List.class, serializer.deserialize(bytes));
+        assertEquals(users, read);
+    }
+
+    @Test
+    public void readsLegacyTextJson() {
+        User user = user(7L);
+        byte[] legacy = new FastJsonRedisSerializer<>(Object.class).serialize(user);
+
+        assertEquals(user, serializer.deserialize(legacy));
+        assertEquals(7L, serializer.deserialize(new FastJsonRedisSerializer<>(Object.class).serialize(7L)));
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUserName("user" + id);
+        user.setNickName("nick" + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setType("0");
+        user.setStatus("0");
+        user.setCreateTime(new Date(1_700_000_000_000L));
+        user.setDelFlag(0);
+        return user;
+    }
+}
@@ -0,0 +1,82 @@
+package com.zhu.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.zhu.common.result.ResponseResult;
+import com.zhu.domain.vo.uservo.UserVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * @author xiaozhu
+ */
+public class WebConfigTest {
+
+    private TimeZone defaultZone;
+
+    private WebConfig webConfig;
+
+    /**
+     * VO 上 @JsonFormat 的时区为 GMT+8：jackson 按注解，fastjson 按 JVM 时区，部署时 JVM 时区为 Asia/Shanghai
+     */
+    @BeforeEach
+    public void setUp() {
+        defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Shanghai"));
+        webConfig = new WebConfig();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TimeZone.setDefault(defaultZone);
+    }
+
+    @Test
+    public void jacksonMatchesFastjson() throws IOException {
+        byte[] fastjson = write(webConfig.fastJsonHttpMessageConverters(), MediaType.APPLICATION_JSON);
+        byte[] jackson = write(webConfig.jacksonHttpMessageConverter(), MediaType.APPLICATION_JSON);
+
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(mapper.readTree(fastjson), mapper.readTree(jackson));
+        // 默认不格式化输出
+        assertFalse(new String(fastjson, StandardCharsets.UTF_8).contains("\n"));
+        assertFalse(new String(jackson, StandardCharsets.UTF_8).contains("\n"));
+    }
+
+    @Test
+    public void cborHasSameStructure() throws IOException {
+        byte[] json = write(webConfig.fastJsonHttpMessageConverters(), MediaType.APPLICATION_JSON);
+        byte[] cbor = write(webConfig.cborHttpMessageConverter(), MediaType.APPLICATION_CBOR);
+
+        JsonNode node = new CBORMapper().readTree(cbor);
+        assertEquals(new ObjectMapper().readTree(json), node);
+        assertEquals("1234567890123", node.at("/data/0/id").asText());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static byte[] write(HttpMessageConverter<?> converter, MediaType mediaType) throws IOException {
+        UserVO user = new UserVO();
+        user.setId(1234567890123L);
+        user.setUserName("zhangsan");
+        user.setNickName("张三");
+        user.setType("0");
+        user.setCreateTime(new Date(1_700_000_000_000L));
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        ((HttpMessageConverter<Object>) converter).write(ResponseResult.okResult(List.of(user)), mediaType, message);
+        return message.getBodyAsBytes();
+    }
+}
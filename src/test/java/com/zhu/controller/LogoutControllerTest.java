@@ -0,0 +1,55 @@
+package com.zhu.controller;
+
+import com.zhu.security.token.TokenRevocationService;
+import com.zhu.security.token.VerifiedToken;
+import com.zhu.security.token.VerifiedTokenCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+/**
+ * @author xiaozhu
+ */
+public class LogoutControllerTest {
+
+    private final VerifiedTokenCache verifiedTokenCache = mock(VerifiedTokenCache.class);
+
+    private final TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        LogoutController controller = new LogoutController();
+        ReflectionTestUtils.setField(controller, "verifiedTokenCache", verifiedTokenCache);
+        ReflectionTestUtils.setField(controller, "tokenRevocationService", tokenRevocationService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        when(verifiedTokenCache.verify("t1")).thenReturn(new VerifiedToken("1", "jti-1", 1_700_000_000_000L));
+    }
+
+    @Test
+    public void revokesCurrentToken() throws Exception {
+        mockMvc.perform(post("/logout").header("Authorization", "Bearer t1"))
+                .andExpect(jsonPath("$.code").value(200));
+        verify(tokenRevocationService).revoke("jti-1", 1_700_000_000_000L);
+        verify(verifiedTokenCache).invalidate("t1");
+    }
+
+    @Test
+    public void requiresToken() throws Exception {
+        mockMvc.perform(post("/logout"))
+                .andExpect(jsonPath("$.code").value(401));
+        verify(tokenRevocationService, never()).revoke(any(), anyLong());
+    }
+}
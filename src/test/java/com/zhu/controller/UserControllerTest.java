@@ -0,0 +1,59 @@
+package com.zhu.controller;
+
+import com.zhu.common.result.ResponseResult;
+import com.zhu.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @author xiaozhu
+ */
+public class UserControllerTest {
+
+    private final UserService userService = mock(UserService.class);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        UserController controller = new UserController();
+        ReflectionTestUtils.setField(controller, "userService", userService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        when(userService.getUserETag(1L)).thenReturn("u1-1700000000000-7f-d1");
+        when(userService.getUserById(1L)).thenReturn(ResponseResult.okResult("user"));
+    }
+
+    @Test
+    public void returnsETag() throws Exception {
+        mockMvc.perform(get("/user/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"u1-1700000000000-7f-d1\""));
+    }
+
+    @Test
+    public void notModifiedSkipsQuery() throws Exception {
+        mockMvc.perform(get("/user/1").header("If-None-Match", "\"u1-1700000000000-7f-d1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(userService, never()).getUserById(1L);
+    }
+
+    @Test
+    public void changedETagReturnsBody() throws Exception {
+        mockMvc.perform(get("/user/1").header("If-None-Match", "\"u1-1600000000000-7f-d1\""))
+                .andExpect(status().isOk());
+        verify(userService).getUserById(1L);
+    }
+}
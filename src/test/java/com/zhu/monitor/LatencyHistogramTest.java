@@ -0,0 +1,55 @@
+package com.zhu.monitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author xiaozhu
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsCoverValuesContiguously() {
+        for (long v = 0; v < 100_000; v++) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(LatencyHistogram.lowerBound(index) <= v && v <= LatencyHistogram.upperBound(index), "v=" + v);
+        }
+        long big = 123_456_789L;
+        int index = LatencyHistogram.indexOf(big);
+        long width = LatencyHistogram.upperBound(index) - LatencyHistogram.lowerBound(index) + 1;
+        assertTrue(width <= big / 32, "相对误差不超过 1/32");
+    }
+
+    @Test
+    public void percentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 10_000; v++) {
+            histogram.record(v);
+        }
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(5000.5, histogram.getMean(), 0.001);
+        assertWithin(5000, histogram.percentile(50));
+        assertWithin(9900, histogram.percentile(99));
+        assertWithin(9990, histogram.percentile(99.9));
+        assertEquals(10_000, histogram.percentile(100));
+        assertEquals(0, new LatencyHistogram().percentile(99));
+    }
+
+    @Test
+    public void parameterShapeIgnoresGeneratedAliases() {
+        assertEquals("{ids:List[≤8],status:String}", SqlStatsInterceptor.shapeOf(
+                Map.of("ids", List.of(1, 2, 3, 4, 5), "param1", List.of(1), "status", "0", "param2", "0")));
+        assertEquals("Long", SqlStatsInterceptor.shapeOf(1L));
+        assertEquals("null", SqlStatsInterceptor.shapeOf(null));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 32, "expected≈" + expected + ", actual=" + actual);
+    }
+}
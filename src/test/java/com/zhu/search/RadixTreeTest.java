@@ -0,0 +1,95 @@
+package com.zhu.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author xiaozhu
+ */
+public class RadixTreeTest {
+
+    @Test
+    public void topKByTimeWithSharedPrefixes() {
+        RadixTree tree = new RadixTree();
+        tree.insert("alice", 1, 100);
+        tree.insert("alan", 2, 300);
+        tree.insert("al", 3, 200);
+        tree.insert("bob", 4, 400);
+        // 同一个用户挂在两个词下只返回一次
+        tree.insert("alpha", 4, 400);
+
+        assertArrayEquals(new long[]{4, 2, 3, 1}, tree.topK("al", 10));
+        assertArrayEquals(new long[]{4, 2}, tree.topK("a", 2));
+        assertArrayEquals(new long[]{1}, tree.topK("ali", 10));
+        assertArrayEquals(new long[]{1}, tree.topK("alice", 10));
+        assertArrayEquals(new long[0], tree.topK("alicex", 10));
+        assertArrayEquals(new long[0], tree.topK("c", 10));
+        assertEquals(5, tree.size());
+    }
+
+    @Test
+    public void removeMergesAndRecomputesMax() {
+        RadixTree tree = new RadixTree();
+        tree.insert("alice", 1, 100);
+        tree.insert("alan", 2, 300);
+        tree.insert("al", 3, 200);
+
+        assertTrue(tree.remove("alan", 2));
+        assertFalse(tree.remove("alan", 2));
+        assertFalse(tree.remove("ala", 1));
+        assertArrayEquals(new long[]{3, 1}, tree.topK("a", 10));
+
+        assertTrue(tree.remove("al", 3));
+        assertArrayEquals(new long[]{1}, tree.topK("al", 10));
+        assertArrayEquals(new long[]{1}, tree.topK("alic", 10));
+        assertTrue(tree.remove("alice", 1));
+        assertArrayEquals(new long[0], tree.topK("a", 10));
+        assertEquals(0, tree.size());
+    }
+
+    @Test
+    public void matchesBruteForce() {
+        Random random = new Random(42);
+        RadixTree tree = new RadixTree();
+        List<Object[]> entries = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String term = randomTerm(random);
+            long time = random.nextInt(500);
+            tree.insert(term, i, time);
+            entries.add(new Object[]{term, (long) i, time});
+        }
+        for (int i = 0; i < 500; i++) {
+            Object[] entry = entries.remove(random.nextInt(entries.size()));
+            assertTrue(tree.remove((String) entry[0], (Long) entry[1]));
+        }
+        for (int i = 0; i < 200; i++) {
+            String prefix = randomTerm(random).substring(0, 1 + random.nextInt(2));
+            long[] expected = entries.stream()
+                    .filter(entry -> ((String) entry[0]).startsWith(prefix))
+                    .sorted(Comparator.<Object[]>comparingLong(entry -> (Long) entry[2])
+                            .thenComparingLong(entry -> (Long) entry[1]).reversed())
+                    .limit(10)
+                    .mapToLong(entry -> (Long) entry[1])
+                    .toArray();
+            assertArrayEquals(expected, tree.topK(prefix, 10), prefix);
+        }
+    }
+
+    private static String randomTerm(Random random) {
+        int length = 3 + random.nextInt(4);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(4)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,150 @@
+package com.zhu.search;
+
+import com.zhu.domain.entity.User;
+import com.zhu.domain.vo.uservo.UserSuggestVO;
+import com.zhu.event.UserChangedEvent;
+import com.zhu.mapper.UserMapper;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author xiaozhu
+ */
+public class UserSearchIndexTest {
+
+    private final UserMapper userMapper = mock(UserMapper.class);
+
+    private final UserSearchIndex index = new UserSearchIndex();
+
+    private final UserSuggestIndex suggestIndex = new UserSuggestIndex();
+
+    private final List<User> table = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        table.add(user(1L, "alice", "Alice Wang", "alice@example.com", "13800000001"));
+        table.add(user(2L, "bob", "小明", "bob@example.com", "13800000002"));
+        table.add(user(3L, "malice", "Bob", "m@test.com", "13900000003"));
+        doAnswer(invocation -> {
+            ResultHandler<User> handler = invocation.getArgument(9);
+            DefaultResultContext<User> context = new DefaultResultContext<>();
+            for (User user : table) {
+                context.nextResultObject(user);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(userMapper).streamUsersByCondition(any(), any(), any(), any(), any(), any(), any(), any(), any(), any());
+        when(userMapper.selectUsersByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return table.stream().filter(user -> ids.contains(user.getId())).toList();
+        });
+        ReflectionTestUtils.setField(index, "userMapper", userMapper);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.invokeMethod(index, "build");
+        ReflectionTestUtils.setField(suggestIndex, "userMapper", userMapper);
+        ReflectionTestUtils.setField(suggestIndex, "enabled", true);
+        ReflectionTestUtils.invokeMethod(suggestIndex, "build");
+    }
+
+    @Test
+    public void matchesLikeSemanticsAndRanks() {
+        // 用户名完全匹配优先于包含
+        assertEquals(List.of(1L, 3L), index.search("ALICE", 10));
+        // 昵称和邮箱同时命中
+        assertEquals(List.of(2L, 3L), index.search("bob", 10));
+        assertEquals(List.of(2L), index.search("小明", 10));
+        assertEquals(List.of(3L), index.search("139", 10));
+        assertTrue(index.search("xyz", 10).isEmpty());
+        // 单字关键词走全量扫描
+        assertEquals(3, index.search("@", 10).size());
+        assertEquals(List.of(1L), index.search("alice", 1));
+    }
+
+    @Test
+    public void appliesIncrementalChanges() throws InterruptedException {
+        table.set(1, user(2L, "robert", "小明", "robert@example.com", "13800000002"));
+        table.remove(0);
+        table.add(user(4L, "bobby", null, null, null));
+        UserIndexUpdater updater = updater();
+        updater.onUserChanged(new UserChangedEvent(List.of(1L, 2L, 4L)));
+        awaitUpdates(updater);
+
+        // 两个索引共用一次查询
+        verify(userMapper, times(1)).selectUsersByIds(anyList());
+        assertEquals(List.of(2L), suggestIndex.suggest("rob", 10).stream().map(UserSuggestVO::getId).toList());
+        assertTrue(suggestIndex.suggest("alice", 10).isEmpty());
+
+        // 昵称完全匹配（6*3）高于用户名前缀匹配（8*2）
+        assertEquals(List.of(3L, 4L), index.search("bob", 10));
+        assertEquals(List.of(2L), index.search("robert", 10));
+        assertEquals(List.of(3L), index.search("alice", 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void reusesDocIdsOnUpdate() {
+        for (int i = 0; i < 100; i++) {
+            table.set(0, user(1L, "alice" + i, "Alice Wang", "alice@example.com", "13800000001"));
+            index.onUsersChanged(List.of(1L), userMapper.selectUsersByIds(List.of(1L)));
+        }
+
+        assertEquals(List.of(1L), index.search("alice99", 10));
+        // 每次更新先删后加，复用删除留下的文档号，不会不断增长
+        assertEquals(3, ((List<?>) ReflectionTestUtils.getField(index, "docs")).size());
+    }
+
+    @Test
+    public void resyncAppliesMissedChanges() throws InterruptedException {
+        // 其他节点删除了 alice，广播丢失：定时对账按 update_time 查到变更的ID
+        table.remove(0);
+        when(userMapper.selectIdsChangedSince(any())).thenReturn(List.of(1L));
+        UserIndexUpdater updater = updater();
+        updater.resync();
+        awaitUpdates(updater);
+
+        assertEquals(List.of(3L), index.search("alice", 10));
+        assertTrue(suggestIndex.suggest("alice", 10).isEmpty());
+    }
+
+    private UserIndexUpdater updater() {
+        UserIndexUpdater updater = new UserIndexUpdater();
+        ReflectionTestUtils.setField(updater, "userMapper", userMapper);
+        ReflectionTestUtils.setField(updater, "indexes", List.of(index, suggestIndex));
+        return updater;
+    }
+
+    private static void awaitUpdates(UserIndexUpdater updater) throws InterruptedException {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(updater, "executor");
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    private static User user(Long id, String userName, String nickName, String email, String phonenumber) {
+        User user = new User();
+        user.setId(id);
+        user.setUserName(userName);
+        user.setNickName(nickName);
+        user.setEmail(email);
+        user.setPhonenumber(phonenumber);
+        return user;
+    }
+}
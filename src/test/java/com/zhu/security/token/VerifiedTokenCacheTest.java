@@ -0,0 +1,81 @@
+package com.zhu.security.token;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.zhu.utils.JwtUtil;
+import io.jsonwebtoken.ExpiredJwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author xiaozhu
+ */
+public class VerifiedTokenCacheTest {
+
+    @Test
+    public void cachesUntilTokenExpiry() throws Exception {
+        VerifiedTokenCache cache = cache(3600);
+        String token = JwtUtil.createJWT("jti-1", "1", 60_000L);
+
+        VerifiedToken verified = cache.verify(token);
+        assertSame(verified, cache.verify(token));
+        assertEquals("1", verified.subject());
+        assertEquals("jti-1", verified.tokenId());
+
+        long expiresAfter = expiresAfterMillis(cache);
+        assertTrue(expiresAfter <= 60_000 && expiresAfter > 55_000, "expiresAfter=" + expiresAfter);
+    }
+
+    @Test
+    public void capsExpiryAtMaxExpire() throws Exception {
+        VerifiedTokenCache cache = cache(10);
+        cache.verify(JwtUtil.createJWT("jti-2", "2", 3_600_000L));
+
+        assertTrue(expiresAfterMillis(cache) <= 10_000);
+    }
+
+    @Test
+    public void expiredTokenIsNotServedFromCache() throws Exception {
+        VerifiedTokenCache cache = cache(3600);
+        // exp 精确到秒
+        String token = JwtUtil.createJWT("jti-3", "3", 1500L);
+        cache.verify(token);
+
+        Thread.sleep(2100);
+        assertThrows(ExpiredJwtException.class, () -> cache.verify(token));
+    }
+
+    @Test
+    public void invalidateRemovesEntry() throws Exception {
+        VerifiedTokenCache cache = cache(3600);
+        String token = JwtUtil.createJWT("jti-4", "4", 60_000L);
+        VerifiedToken verified = cache.verify(token);
+
+        cache.invalidate(token);
+        assertEquals(0, cache.size());
+        assertNotSame(verified, cache.verify(token));
+    }
+
+    private static VerifiedTokenCache cache(long maxExpireSeconds) {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "maxExpireSeconds", maxExpireSeconds);
+        cache.init();
+        return cache;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long expiresAfterMillis(VerifiedTokenCache cache) {
+        Cache<Object, VerifiedToken> caffeine = (Cache<Object, VerifiedToken>) ReflectionTestUtils.getField(cache, "cache");
+        Object key = caffeine.asMap().keySet().iterator().next();
+        return caffeine.policy().expireVariably().orElseThrow()
+                .getExpiresAfter(key, TimeUnit.MILLISECONDS).orElseThrow();
+    }
+}
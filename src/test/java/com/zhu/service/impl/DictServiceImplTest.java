@@ -0,0 +1,55 @@
+package com.zhu.service.impl;
+
+import com.zhu.common.dict.DictSnapshot;
+import com.zhu.mapper.DictDataMapper;
+import com.zhu.mapper.DictTypeMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author xiaozhu
+ */
+public class DictServiceImplTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void backsOffAfterFailedLoad() throws InterruptedException {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> ops = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(ops);
+        DictTypeMapper dictTypeMapper = mock(DictTypeMapper.class);
+        DictDataMapper dictDataMapper = mock(DictDataMapper.class);
+        when(dictDataMapper.selectAllDictData()).thenReturn(List.of());
+        when(dictTypeMapper.selectList(any())).thenThrow(new IllegalStateException("db down"));
+
+        DictServiceImpl dictService = new DictServiceImpl();
+        ReflectionTestUtils.setField(dictService, "dictTypeMapper", dictTypeMapper);
+        ReflectionTestUtils.setField(dictService, "dictDataMapper", dictDataMapper);
+        ReflectionTestUtils.setField(dictService, "stringRedisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(dictService, "retryIntervalMs", 200L);
+
+        // 加载失败后重试间隔内只返回空快照，不再查库
+        for (int i = 0; i < 100; i++) {
+            assertSame(DictSnapshot.EMPTY, dictService.getSnapshot());
+        }
+        verify(dictTypeMapper, times(1)).selectList(any());
+
+        doReturn(List.of()).when(dictTypeMapper).selectList(any());
+        Thread.sleep(250);
+        assertNotSame(DictSnapshot.EMPTY, dictService.getSnapshot());
+        verify(dictTypeMapper, times(2)).selectList(any());
+    }
+}
@@ -0,0 +1,102 @@
+package com.zhu.service.impl;
+
+import com.zhu.cache.UserCache;
+import com.zhu.common.result.ResponseResult;
+import com.zhu.domain.entity.User;
+import com.zhu.mapper.UserMapper;
+import com.zhu.stats.UserStatsCounter;
+import com.zhu.utils.RedisCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author xiaozhu
+ */
+public class UserServiceImplTest {
+
+    /**
+     * 模拟的 sys_user：用户ID -> 用户
+     */
+    private final Map<Long, User> table = new ConcurrentHashMap<>();
+
+    private final UserStatsCounter userStats = new UserStatsCounter();
+
+    private final UserServiceImpl userService = new UserServiceImpl();
+
+    @BeforeEach
+    public void setUp() {
+        table.put(1L, user(1L, 0));
+        table.put(2L, user(2L, 0));
+        table.put(3L, user(3L, 1));
+        ReflectionTestUtils.setField(userStats, "enabled", true);
+        userStats.record(List.of(), List.of(table.get(1L), table.get(2L)));
+
+        UserMapper userMapper = mock(UserMapper.class);
+        when(userMapper.selectLiveUsersForUpdate(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream()
+                        .map(table::get)
+                        .filter(user -> user != null && user.getDelFlag() == 0)
+                        .toList());
+        when(userMapper.logicDeleteByIds(anyCollection())).thenAnswer(invocation -> {
+            int count = 0;
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                User user = table.get(id);
+                if (user != null && user.getDelFlag() == 0) {
+                    user.setDelFlag(1);
+                    count++;
+                }
+            }
+            return count;
+        });
+
+        ReflectionTestUtils.setField(userService, "baseMapper", userMapper);
+        ReflectionTestUtils.setField(userService, "userStats", userStats);
+        ReflectionTestUtils.setField(userService, "userCache", mock(UserCache.class));
+        ReflectionTestUtils.setField(userService, "redisCache", mock(RedisCache.class));
+        ReflectionTestUtils.setField(userService, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(userService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    public void batchDeleteOnlyCountsLiveRows() {
+        // 3 已删除：不再扣减
+        assertEquals(200, userService.batchDeleteUsers(List.of(1L, 3L)).getCode());
+        assertEquals(1L, userStats.statistics().getTotalUsers());
+
+        // 1 已在上一次删除：只扣减 2
+        assertEquals(200, userService.batchDeleteUsers(List.of(1L, 2L)).getCode());
+        assertEquals(0L, userStats.statistics().getTotalUsers());
+
+        // 全部已删除：不扣减，返回失败
+        ResponseResult result = userService.batchDeleteUsers(List.of(1L, 2L, 3L));
+        assertEquals(500, result.getCode());
+        assertEquals(0L, userStats.statistics().getTotalUsers());
+    }
+
+    private static User user(Long id, int delFlag) {
+        User user = new User();
+        user.setId(id);
+        user.setType("0");
+        user.setStatus("0");
+        user.setSex("0");
+        user.setDelFlag(delFlag);
+        user.setCreateTime(Timestamp.valueOf("2024-01-05 10:00:00"));
+        return user;
+    }
+}
@@ -0,0 +1,89 @@
+package com.zhu.stats;
+
+import com.zhu.domain.entity.User;
+import com.zhu.domain.vo.uservo.UserMonthStatisticsVO;
+import com.zhu.domain.vo.uservo.UserStatisticsVO;
+import com.zhu.domain.vo.uservo.UserTypeStatisticsVO;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author xiaozhu
+ */
+public class UserStatsCounterTest {
+
+    @Test
+    public void aggregatesRecordedDeltas() {
+        UserStatsCounter counter = new UserStatsCounter();
+        ReflectionTestUtils.setField(counter, "enabled", true);
+
+        User alice = user(1L, "0", "0", "1", "2024-01-05 10:00:00");
+        User bob = user(2L, "1", "0", "0", "2024-03-01 08:00:00");
+        User carol = user(3L, "0", "0", "1", "2023-12-31 23:00:00");
+        counter.record(List.of(), List.of(alice, bob, carol));
+        // 停用 alice，删除 carol
+        counter.record(List.of(alice), List.of(user(1L, "0", "1", "1", "2024-01-05 10:00:00")));
+        counter.record(List.of(carol), List.of());
+
+        List<UserTypeStatisticsVO> byType = counter.countByType();
+        assertEquals(2, byType.size());
+        assertEquals("0", byType.get(0).getUserType());
+        assertEquals(1L, byType.get(0).getCount());
+        assertEquals(0L, byType.get(0).getActiveCount());
+        assertEquals(1L, byType.get(0).getInactiveCount());
+        assertEquals(1L, byType.get(1).getActiveCount());
+
+        UserStatisticsVO statistics = counter.statistics();
+        assertEquals(2L, statistics.getTotalUsers());
+        assertEquals(1L, statistics.getAdminCount());
+        assertEquals(1L, statistics.getMaleCount());
+        assertEquals("2024-01-05", statistics.getEarliestRegisterDate());
+        assertEquals("2024-03-01", statistics.getLatestRegisterDate());
+
+        List<UserMonthStatisticsVO> byMonth = counter.countByMonth(2024);
+        assertEquals(List.of("2024-03", "2024-01"), byMonth.stream().map(UserMonthStatisticsVO::getMonth).toList());
+        assertEquals(0, counter.countByMonth(2023).size());
+    }
+
+    @Test
+    public void updatesTotalsWithChangedCells() {
+        UserStatsCounter counter = new UserStatsCounter();
+        ReflectionTestUtils.setField(counter, "enabled", true);
+
+        replaceSnapshot(counter, Map.of("0|0|0|2024-01-05", 3L, "1|0|1|2024-02-01", 1L));
+        replaceSnapshot(counter, Map.of("0|0|0|2024-01-05", 2L, "0|1|1|2023-06-30", 4L));
+
+        UserStatisticsVO statistics = counter.statistics();
+        assertEquals(6L, statistics.getTotalUsers());
+        assertEquals(0L, statistics.getAdminCount());
+        assertEquals(4L, statistics.getInactiveUsers());
+        assertEquals(4L, statistics.getFemaleCount());
+        assertEquals("2023-06-30", statistics.getEarliestRegisterDate());
+        assertEquals("2024-01-05", statistics.getLatestRegisterDate());
+        assertEquals(List.of("2024-01", "2023-06"),
+                counter.countByMonth(null).stream().map(UserMonthStatisticsVO::getMonth).toList());
+        assertEquals(1, counter.countByType().size());
+    }
+
+    private static void replaceSnapshot(UserStatsCounter counter, Map<String, Long> counts) {
+        Object snapshot = ReflectionTestUtils.invokeMethod(counter, "snapshot", new HashMap<>(counts));
+        ReflectionTestUtils.setField(counter, "state", snapshot);
+    }
+
+    private static User user(Long id, String type, String status, String sex, String createTime) {
+        User user = new User();
+        user.setId(id);
+        user.setType(type);
+        user.setStatus(status);
+        user.setSex(sex);
+        user.setCreateTime(Timestamp.valueOf(createTime));
+        return user;
+    }
+}
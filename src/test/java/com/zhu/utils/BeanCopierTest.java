@@ -0,0 +1,148 @@
+package com.zhu.utils;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.FatalBeanException;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 与 Spring BeanUtils.copyProperties 的结果逐一对比
+ *
+ * @author xiaozhu
+ */
+public class BeanCopierTest {
+
+    @Test
+    public void matchesBeanUtils() {
+        Source source = new Source();
+        source.setId(7L);
+        source.setName("zhangsan");
+        source.setAge(18);
+        source.setCount(3);
+        source.setScore(99L);
+        source.setTags(List.of("a", "b"));
+        source.setCodes(List.of("1", "2"));
+        source.setCreateBy(1L);
+        source.setSecret("s");
+
+        assertParity(source);
+        Target copied = BeanCopier.of(Source.class, Target.class).copy(source);
+        // 基本类型 <-> 包装类型
+        assertEquals(18, copied.getAge());
+        assertEquals(3, copied.getCount());
+        // 父类中声明的属性
+        assertEquals(1L, copied.getCreateBy());
+        // 类型不可赋值（Long -> String、List<String> -> List<Integer>）的属性不拷贝
+        assertNull(copied.getScore());
+        assertNull(copied.getCodes());
+        assertEquals(List.of("a", "b"), copied.getTags());
+        // 目标只读、源没有 getter 的属性不拷贝
+        assertEquals("readonly", copied.getReadOnly());
+        assertNull(copied.getSecret());
+    }
+
+    @Test
+    public void copiesNullValues() {
+        Source source = new Source();
+        source.setAge(18);
+        assertParity(source);
+
+        Target target = new Target();
+        target.setName("old");
+        target.setTags(List.of("old"));
+        BeanCopier.of(Source.class, Target.class).copyProperties(source, target);
+        assertNull(target.getName());
+        assertNull(target.getTags());
+    }
+
+    @Test
+    public void keepsPrimitiveTargetWhenValueIsNull() {
+        // 唯一与 BeanUtils 不同之处：BeanUtils 把 null 写入基本类型属性时抛出异常，这里保留原值
+        Source source = new Source();
+        source.setName("lisi");
+        Target expected = new Target();
+        assertThrows(FatalBeanException.class, () -> BeanUtils.copyProperties(source, expected));
+
+        Target target = new Target();
+        target.setAge(5);
+        BeanCopier.of(Source.class, Target.class).copyProperties(source, target);
+        assertEquals(5, target.getAge());
+        assertEquals("lisi", target.getName());
+    }
+
+    @Test
+    public void handlesNullSources() {
+        assertNull(BeanCopyUtils.copyBean(null, Target.class));
+        Source source = new Source();
+        source.setAge(1);
+        List<Target> copied = BeanCopyUtils.copyBeanList(Arrays.asList(source, null), Target.class);
+        assertEquals(2, copied.size());
+        assertEquals(1, copied.get(0).getAge());
+        assertNull(copied.get(1));
+    }
+
+    private static void assertParity(Source source) {
+        Target expected = new Target();
+        BeanUtils.copyProperties(source, expected);
+        assertEquals(expected, BeanCopier.of(Source.class, Target.class).copy(source));
+        assertEquals(expected, BeanCopyUtils.copyBean(source, Target.class));
+    }
+
+    @Data
+    public static class BaseSource {
+        private Long createBy;
+    }
+
+    @Data
+    public static class BaseTarget {
+        private Long createBy;
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class Source extends BaseSource {
+        private Long id;
+        private String name;
+        private Integer age;
+        private int count;
+        private Long score;
+        private List<String> tags;
+        private List<String> codes;
+        /**
+         * 只有 setter，没有 getter
+         */
+        @Getter(AccessLevel.NONE)
+        private String secret;
+
+        public String getReadOnly() {
+            return "from-source";
+        }
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class Target extends BaseTarget {
+        private Long id;
+        private String name;
+        private int age;
+        private Integer count;
+        private String score;
+        private List<String> tags;
+        private List<Integer> codes;
+        private String secret;
+
+        public String getReadOnly() {
+            return "readonly";
+        }
+    }
+}
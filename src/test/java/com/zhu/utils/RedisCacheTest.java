@@ -0,0 +1,145 @@
+package com.zhu.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author xiaozhu
+ */
+public class RedisCacheTest {
+
+    /**
+     * 模拟的 Redis 数据，两个 RedisCache 实例共享，相当于两个节点
+     */
+    private final Map<String, Object> store = new ConcurrentHashMap<>();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void burstOfMissesLoadsOnce() throws Exception {
+        RedisCache node1 = node();
+        RedisCache node2 = node();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            RedisCache node = i % 2 == 0 ? node1 : node2;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return node.getOrLoad("hot", Duration.ofMinutes(1), () -> {
+                    loads.incrementAndGet();
+                    sleep(100);
+                    return "value";
+                });
+            }, executor));
+        }
+        start.countDown();
+        futures.forEach(future -> assertEquals("value", future.join()));
+        executor.shutdown();
+
+        assertEquals(1, loads.get());
+        RedisCache.LoadedValue cached = (RedisCache.LoadedValue) store.get("hot");
+        // 有效时间加了 0~10% 的随机量
+        long ttl = cached.getExpireAt() - System.currentTimeMillis();
+        assertTrue(ttl > 55_000 && ttl <= 66_000);
+    }
+
+    @Test
+    public void refreshesBeforeExpiry() throws Exception {
+        RedisCache cache = node();
+        // 加载耗时 1 秒、还有 1 毫秒过期：几乎一定提前刷新
+        store.put("soon", new RedisCache.LoadedValue("old", 1000, System.currentTimeMillis() + 1));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("old", cache.getOrLoad("soon", Duration.ofMinutes(1), () -> {
+            loads.incrementAndGet();
+            return "new";
+        }));
+        for (int i = 0; i < 100 && loads.get() == 0; i++) {
+            sleep(10);
+        }
+        sleep(50);
+        assertEquals(1, loads.get());
+        assertEquals("new", ((RedisCache.LoadedValue) store.get("soon")).getValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void keysAreDistinct() {
+        Cursor<String> cursor = mock(Cursor.class);
+        doAnswer(invocation -> {
+            List.of("user:1", "user:2", "user:1", "user:3", "user:2").forEach(invocation.getArgument(0));
+            return null;
+        }).when(cursor).forEachRemaining(any());
+        RedisCache cache = new RedisCache() {
+            @Override
+            public Cursor<String> scan(String pattern, long count) {
+                return cursor;
+            }
+        };
+
+        // SCAN 在 rehash 期间可能重复返回同一个键
+        assertEquals(List.of("user:1", "user:2", "user:3"), new ArrayList<>(cache.keys("user:*")));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private RedisCache node() {
+        ValueOperations operations = mock(ValueOperations.class);
+        when(operations.get(anyString())).thenAnswer(invocation -> store.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> store.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(operations).set(anyString(), any(), anyLong(), any(TimeUnit.class));
+        RedisTemplate template = mock(RedisTemplate.class);
+        when(template.opsForValue()).thenReturn(operations);
+
+        RedisCache cache = new RedisCache() {
+            @Override
+            public <T> T execute(RedisScript<T> script, List<String> keys, String... args) {
+                // 加载锁：SET NX 与 比较后删除
+                String key = keys.get(0);
+                if (args.length == 2) {
+                    return (T) (Long) (store.putIfAbsent(key, args[0]) == null ? 1L : 0L);
+                }
+                return (T) (Long) (store.remove(key, args[0]) ? 1L : 0L);
+            }
+        };
+        cache.redisTemplate = template;
+        return cache;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}